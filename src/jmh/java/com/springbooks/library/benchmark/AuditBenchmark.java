@@ -0,0 +1,60 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.audit.AuditTrail;
+import com.springbooks.library.model.entity.AuditRecord;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost on the calling thread of queuing an audit entry for the background
+ * writer, against inserting it synchronously. Each JDBC statement is delayed
+ * by {@code dbLatencyMs} as with a remote database; the writer pays that once
+ * per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditBenchmark {
+
+    private static final String INSERT_SQL =
+            "insert into audit_log (action, entity_id, member_id, principal, occurred_at) values (?, ?, ?, ?, ?)";
+
+    @Param({"1"})
+    public long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private AuditTrail auditTrail;
+    private JdbcTemplate jdbcTemplate;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("audit", JdbcLatency.initializer(dbLatencyMs));
+        auditTrail = context.getBean(AuditTrail.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean queued() {
+        return auditTrail.record(AuditRecord.Action.BOOK_BORROWED, next++, 1L);
+    }
+
+    @Benchmark
+    public int synchronousInsert() {
+        return jdbcTemplate.update(INSERT_SQL, AuditRecord.Action.BOOK_BORROWED.name(), next++, 1L, null,
+                Timestamp.from(Instant.now()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.SpringbooksLibraryApplication;
+import com.springbooks.library.model.entity.ChangeLogHead;
+import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.service.BookService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server against a private in-memory H2
+ * database, so benchmarks exercise the real services, repositories and
+ * transactions.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return withChangeLogHead(new SpringApplicationBuilder(SpringbooksLibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments(databaseName)));
+    }
+
+    static ConfigurableApplicationContext start(String databaseName,
+                                                ApplicationContextInitializer<ConfigurableApplicationContext> initializer) {
+        return withChangeLogHead(new SpringApplicationBuilder(SpringbooksLibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(initializer)
+                .run(arguments(databaseName)));
+    }
+
+    /**
+     * Starts the full web application on a random port; {@code extraArgs} override the defaults.
+     */
+    static ConfigurableApplicationContext startServer(String databaseName,
+                                                      ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                      String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(arguments(databaseName)));
+        args.add("--server.port=0");
+        args.addAll(List.of(extraArgs));
+        return withChangeLogHead(new SpringApplicationBuilder(SpringbooksLibraryApplication.class)
+                .initializers(initializer)
+                .run(args.toArray(String[]::new)));
+    }
+
+    // data.sql is skipped, so create the change log head row that every catalog write advances
+    private static ConfigurableApplicationContext withChangeLogHead(ConfigurableApplicationContext context) {
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO change_log_head (id, last_seq, purged_through) VALUES (?, 0, 0)", ChangeLogHead.ID);
+        return context;
+    }
+
+    // Passed as arguments rather than default properties so they override application.yml
+    private static String[] arguments(String databaseName) {
+        return new String[] {
+            "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+            "--spring.sql.init.mode=never",
+            "--spring.jpa.show-sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.com.springbooks.library=WARN",
+            "--logging.level.org.springframework.security=WARN"
+        };
+    }
+
+    /**
+     * Inserts {@code count} books through the bulk import path and returns their IDs in insert order.
+     */
+    static long[] seedBooks(BookService bookService, int count) {
+        long[] ids = new long[count];
+        int created = 0;
+        List<BookRequest> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            chunk.add(new BookRequest("Benchmark Title " + i, "Author " + (i % 5000), "BM-" + i, 1));
+            if (chunk.size() == SEED_CHUNK_SIZE || i == count - 1) {
+                for (BulkItemResult result : bookService.createBooks(chunk, created)) {
+                    ids[created++] = result.getId();
+                }
+                chunk.clear();
+            }
+        }
+        return ids;
+    }
+}
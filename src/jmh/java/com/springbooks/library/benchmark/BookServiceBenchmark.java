@@ -0,0 +1,59 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book listing at different catalog sizes. Seeding a million rows takes a
+ * while, so the catalog is built once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long middleCursor;
+    private long lastPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("listing" + rows);
+        bookService = context.getBean(BookService.class);
+        long[] ids = BenchmarkContext.seedBooks(bookService, rows);
+        middleCursor = ids[rows / 2];
+        lastPageCursor = ids[rows - CursorPage.DEFAULT_SIZE - 1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<BookResponse> getAllBooksFirstPage() {
+        return bookService.getAllBooks(null, CursorPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookResponse> getAllBooksMiddlePage() {
+        return bookService.getAllBooks(middleCursor, CursorPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookResponse> getAllBooksLastPage() {
+        return bookService.getAllBooks(lastPageCursor, CursorPage.DEFAULT_SIZE);
+    }
+}
@@ -0,0 +1,53 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.model.request.MemberRequest;
+import com.springbooks.library.service.BookService;
+import com.springbooks.library.service.MemberService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One borrow followed by one return, each in its own transaction, cycling
+ * through the catalog so consecutive operations touch different rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CirculationBenchmark {
+
+    private static final int BOOKS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long[] bookIds;
+    private long memberId;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("circulation");
+        bookService = context.getBean(BookService.class);
+        bookIds = BenchmarkContext.seedBooks(bookService, BOOKS);
+        memberId = context.getBean(MemberService.class)
+                .registerMember(new MemberRequest("Benchmark Member", "benchmark@example.com"))
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void borrowAndReturn() {
+        long bookId = bookIds[next];
+        next = (next + 1) % bookIds.length;
+        bookService.borrowBook(bookId, memberId);
+        bookService.returnBook(bookId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.springbooks.library.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Simulates a remote database by sleeping before every statement execution.
+ * The connection stays checked out of the pool meanwhile, as it would for a
+ * real round trip.
+ */
+final class JdbcLatency {
+
+    private JdbcLatency() {
+    }
+
+    static ApplicationContextInitializer<ConfigurableApplicationContext> initializer(long millis) {
+        return context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && millis > 0 ? wrap(bean, millis) : bean;
+            }
+        });
+    }
+
+    /**
+     * Proxies every interface of {@code target}, wrapping returned connections and
+     * statements in turn and delaying statement executions.
+     */
+    private static Object wrap(Object target, long millis) {
+        return Proxy.newProxyInstance(JdbcLatency.class.getClassLoader(), interfacesOf(target.getClass()),
+                (proxy, method, args) -> {
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        Thread.sleep(millis);
+                    }
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection || result instanceof Statement ? wrap(result, millis) : result;
+                });
+    }
+
+    private static Class<?>[] interfacesOf(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            interfaces.addAll(List.of(c.getInterfaces()));
+        }
+        return interfaces.toArray(Class<?>[]::new);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.entity.Member;
+import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.mapper.MemberMapper;
+import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.request.MemberRequest;
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.MemberResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapper();
+    private final MemberMapper memberMapper = new MemberMapper();
+
+    private Book book;
+    private Member member;
+    private BookRequest bookRequest;
+    private MemberRequest memberRequest;
+
+    @Setup
+    public void setUp() {
+        book = new Book(42L, "The Left Hand of Darkness", "Ursula K. Le Guin", "9780441478125", false, 1, 1, 3L);
+        member = new Member(7L, "Jane Doe", "jane.doe@example.com", BigDecimal.ZERO);
+        bookRequest = new BookRequest(book.getTitle(), book.getAuthor(), book.getIsbn(), book.getTotalCopies());
+        memberRequest = new MemberRequest(member.getName(), member.getEmail());
+    }
+
+    @Benchmark
+    public BookResponse bookToResponse() {
+        return bookMapper.toResponse(book);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return bookMapper.toEntity(bookRequest);
+    }
+
+    @Benchmark
+    public MemberResponse memberToResponse() {
+        return memberMapper.toResponse(member);
+    }
+
+    @Benchmark
+    public Member memberToEntity() {
+        return memberMapper.toEntity(memberRequest);
+    }
+}
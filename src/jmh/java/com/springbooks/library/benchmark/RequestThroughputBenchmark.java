@@ -0,0 +1,84 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the REST layer on platform versus virtual request threads.
+ * <p>
+ * Each JDBC statement is delayed by {@code dbLatencyMs} and the connection pool
+ * is larger than Tomcat's thread pool, as with a remote database and a pool
+ * sized for it. Platform threads then cap throughput at
+ * {@code threads / latency}; virtual threads are capped by the pool through the
+ * concurrency limiter instead. Virtual threads need Java 21; on older JVMs both
+ * modes run on platform threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestThroughputBenchmark {
+
+    // Sample token from the README; the development JWT decoder accepts it
+    private static final String TOKEN = "eyJhbGciOiJSUzI1NiIsInR5cCI6IkpXVCJ9"
+            + ".eyJzdWIiOiJ0ZXN0LXVzZXIiLCJhdWQiOiJzcHJpbmdib29rcy1hcGkiLCJpc3MiOiJodHRwczovL2Rldi1leGFtcGxlLmF1dGgwLmNvbS8iLCJleHAiOjk5OTk5OTk5OTksImlhdCI6MTYzMDAwMDAwMCwic2NvcGUiOiJyZWFkIHdyaXRlIn0"
+            + ".example-signature";
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"10"})
+    public long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(mode);
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21+; the virtual mode runs on platform threads on this JVM");
+        }
+        context = BenchmarkContext.startServer("throughput" + mode, JdbcLatency.initializer(dbLatencyMs),
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=50",
+                "--spring.datasource.hikari.maximum-pool-size=100",
+                "--library.concurrency.max-concurrent-requests=100",
+                "--library.concurrency.acquire-timeout=30s",
+                // All clients share one token; measure capacity, not the per-client limit
+                "--library.rate-limit.enabled=false");
+        BenchmarkContext.seedBooks(context.getBean(BookService.class), 1000);
+
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books?size=20"))
+                .header("Authorization", "Bearer " + TOKEN)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listBooks() throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
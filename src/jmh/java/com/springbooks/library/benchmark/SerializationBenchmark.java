@@ -0,0 +1,82 @@
+package com.springbooks.library.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbooks.library.json.BookJsonWriter;
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.CursorPage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a list response the way the controllers return it, and compares
+ * mapping a page of {@code Book} rows through {@code BookMapper} and Jackson with
+ * writing them directly with {@code BookJsonWriter}. Run with {@code -prof gc}
+ * to compare allocation per operation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int books;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<BookResponse>> response;
+    private BookMapper bookMapper;
+    private CursorPage<Book> rows;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<BookResponse> content = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            content.add(new BookResponse((long) i, "Benchmark Title " + i, "Author " + i, "BM-" + i, i % 3 == 0, 1, i % 3 == 0 ? 0 : 1));
+        }
+        response = ApiResponse.success(content, "Books retrieved successfully");
+
+        bookMapper = new BookMapper();
+        List<Book> entities = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            entities.add(new Book((long) i, "Benchmark Title " + i, "Author " + i, "BM-" + i, i % 3 == 0, 1, i % 3 == 0 ? 0 : 1, 0L));
+        }
+        rows = new CursorPage<>(entities, books, (long) books - 1, true);
+        out = new ByteArrayOutputStream(books * 128);
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public int mapAndSerializeWithJackson() throws Exception {
+        out.reset();
+        CursorPage<BookResponse> page = new CursorPage<>(
+                rows.getContent().stream().map(bookMapper::toResponse).toList(),
+                rows.getSize(), rows.getNextCursor(), rows.isHasNext());
+        objectMapper.writeValue(out, ApiResponse.success(page, "Books retrieved successfully"));
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeWithBookJsonWriter() throws Exception {
+        out.reset();
+        try (BookJsonWriter writer = new BookJsonWriter(out)) {
+            writer.writePage(rows, "Books retrieved successfully");
+        }
+        return out.size();
+    }
+}
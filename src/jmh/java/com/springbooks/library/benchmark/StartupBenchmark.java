@@ -0,0 +1,77 @@
+package com.springbooks.library.benchmark;
+
+import com.springbooks.library.SpringbooksLibraryApplication;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launch until the application is ready to serve, with the prod
+ * profile on a file-backed database holding {@code books} books. Readiness
+ * includes building the in-memory search and availability indexes.
+ * <p>
+ * Every measurement runs in a fresh JVM. The database is created once under
+ * {@code target/startup-db} and reused by later runs.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 3, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String USER = "sa";
+    private static final String PASSWORD = "password";
+
+    @Param({"1000000"})
+    public int books;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws Exception {
+        dataDir = Path.of("target", "startup-db", String.valueOf(books)).toAbsolutePath();
+        if (Files.exists(dataDir.resolve("librarydb.mv.db"))) {
+            return;
+        }
+        String url = "jdbc:h2:file:" + dataDir.resolve("librarydb");
+        Flyway.configure().dataSource(url, USER, PASSWORD).load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, USER, PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO books (id, title, author, isbn, is_borrowed, version) "
+                    + "SELECT x, 'Benchmark Title ' || x, 'Author ' || MOD(x, 50000), 'BM-' || x, MOD(x, 10) = 0, 0 "
+                    + "FROM SYSTEM_RANGE(1, " + books + ")");
+            statement.execute("ALTER SEQUENCE books_seq RESTART WITH " + (books + 1));
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext timeToReady() {
+        context = new SpringApplicationBuilder(SpringbooksLibraryApplication.class).run(
+            "--spring.profiles.active=prod",
+            "--LIBRARY_DATA_DIR=" + dataDir,
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.com.springbooks.library=WARN"
+        );
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.springbooks.library.analytics;
+
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Circulation counters over a rolling window of the last {@code days} UTC days.
+ * <p>
+ * Borrows and returns are counted in a ring of hourly buckets. Each day
+ * bucket holds exact borrow counts per book and per member, plus a
+ * {@link HeavyHitters} sketch of each. Top lists take their candidates from
+ * the sketches of the days asked for and rank them by their exact counts, so
+ * no query looks at more than {@code days * sketchCapacity} entries however
+ * many books and members there are. A bucket is reset when it is reused for a
+ * later hour or day; events older than their bucket are dropped. Updates cost
+ * {@code O(log sketchCapacity)}. All methods lock the instance.
+ */
+public class CirculationRollups {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final int HOURS_PER_DAY = 24;
+    private static final Comparator<BorrowCountResponse> MOST_BORROWED =
+            Comparator.comparingLong(BorrowCountResponse::getBorrows).reversed()
+                    .thenComparing(BorrowCountResponse::getId);
+
+    private static final class Day {
+
+        long day = Long.MIN_VALUE;
+        final Map<Long, Long> bookBorrows = new HashMap<>();
+        final Map<Long, Long> memberBorrows = new HashMap<>();
+        final HeavyHitters topBooks;
+        final HeavyHitters topMembers;
+
+        Day(int sketchCapacity) {
+            topBooks = new HeavyHitters(sketchCapacity);
+            topMembers = new HeavyHitters(sketchCapacity);
+        }
+
+        void reset(long day) {
+            this.day = day;
+            bookBorrows.clear();
+            memberBorrows.clear();
+            topBooks.clear();
+            topMembers.clear();
+        }
+    }
+
+    private final int days;
+    private final long[] hourStamps;
+    private final long[] hourBorrows;
+    private final long[] hourReturns;
+    private final Day[] dayBuckets;
+
+    public CirculationRollups(int days, int sketchCapacity) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Days must be positive");
+        }
+        this.days = days;
+        int hours = days * HOURS_PER_DAY;
+        hourStamps = new long[hours];
+        hourBorrows = new long[hours];
+        hourReturns = new long[hours];
+        Arrays.fill(hourStamps, Long.MIN_VALUE);
+        dayBuckets = new Day[days];
+        for (int i = 0; i < days; i++) {
+            dayBuckets[i] = new Day(sketchCapacity);
+        }
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public synchronized void recordBorrow(long bookId, long memberId, Instant at) {
+        long hour = epochHour(at);
+        int i = hourBucket(hour);
+        if (i >= 0) {
+            hourBorrows[i]++;
+        }
+        Day day = dayBucket(Math.floorDiv(hour, HOURS_PER_DAY));
+        if (day != null) {
+            day.bookBorrows.merge(bookId, 1L, Long::sum);
+            day.memberBorrows.merge(memberId, 1L, Long::sum);
+            day.topBooks.add(bookId);
+            day.topMembers.add(memberId);
+        }
+    }
+
+    public synchronized void recordReturn(Instant at) {
+        int i = hourBucket(epochHour(at));
+        if (i >= 0) {
+            hourReturns[i]++;
+        }
+    }
+
+    /**
+     * Forgets a deleted book.
+     */
+    public synchronized void removeBook(long bookId) {
+        for (Day day : dayBuckets) {
+            day.bookBorrows.remove(bookId);
+            day.topBooks.remove(bookId);
+        }
+    }
+
+    /**
+     * Borrows and returns of the last {@code hours} hours up to the one
+     * containing {@code now}, oldest first.
+     */
+    public synchronized List<HourlyCirculationResponse> hourly(Instant now, int hours) {
+        long last = epochHour(now);
+        int count = Math.min(hours, hourStamps.length);
+        List<HourlyCirculationResponse> result = new ArrayList<>(count);
+        for (long hour = last - count + 1; hour <= last; hour++) {
+            int i = (int) Math.floorMod(hour, (long) hourStamps.length);
+            boolean current = hourStamps[i] == hour;
+            result.add(new HourlyCirculationResponse(Instant.ofEpochSecond(hour * SECONDS_PER_HOUR),
+                    current ? hourBorrows[i] : 0, current ? hourReturns[i] : 0));
+        }
+        return result;
+    }
+
+    public synchronized List<BorrowCountResponse> topBooks(Instant now, int days, int limit) {
+        return top(now, days, limit, day -> day.topBooks, day -> day.bookBorrows);
+    }
+
+    public synchronized List<BorrowCountResponse> topMembers(Instant now, int days, int limit) {
+        return top(now, days, limit, day -> day.topMembers, day -> day.memberBorrows);
+    }
+
+    public synchronized long bookBorrows(long bookId, Instant now, int days) {
+        return sum(window(now, days), day -> day.bookBorrows, bookId);
+    }
+
+    public synchronized long memberBorrows(long memberId, Instant now, int days) {
+        return sum(window(now, days), day -> day.memberBorrows, memberId);
+    }
+
+    private List<BorrowCountResponse> top(Instant now, int days, int limit,
+                                          Function<Day, HeavyHitters> sketch,
+                                          Function<Day, Map<Long, Long>> counts) {
+        List<Day> window = window(now, days);
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (Day day : window) {
+            candidates.addAll(sketch.apply(day).keys());
+        }
+        List<BorrowCountResponse> ranked = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            long borrows = sum(window, counts, id);
+            if (borrows > 0) {
+                ranked.add(new BorrowCountResponse(id, borrows));
+            }
+        }
+        ranked.sort(MOST_BORROWED);
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private static long sum(List<Day> window, Function<Day, Map<Long, Long>> counts, long id) {
+        long total = 0;
+        for (Day day : window) {
+            total += counts.apply(day).getOrDefault(id, 0L);
+        }
+        return total;
+    }
+
+    /**
+     * The buckets of the last {@code days} days up to today that hold data.
+     */
+    private List<Day> window(Instant now, int days) {
+        long today = Math.floorDiv(epochHour(now), HOURS_PER_DAY);
+        List<Day> window = new ArrayList<>(days);
+        for (long day = today - Math.min(days, this.days) + 1; day <= today; day++) {
+            Day bucket = dayBuckets[(int) Math.floorMod(day, (long) this.days)];
+            if (bucket.day == day) {
+                window.add(bucket);
+            }
+        }
+        return window;
+    }
+
+    /**
+     * The ring index of {@code hour}, resetting a bucket left by an earlier
+     * hour; -1 if the bucket already holds a later one.
+     */
+    private int hourBucket(long hour) {
+        int i = (int) Math.floorMod(hour, (long) hourStamps.length);
+        if (hourStamps[i] > hour) {
+            return -1;
+        }
+        if (hourStamps[i] < hour) {
+            hourStamps[i] = hour;
+            hourBorrows[i] = 0;
+            hourReturns[i] = 0;
+        }
+        return i;
+    }
+
+    private Day dayBucket(long day) {
+        Day bucket = dayBuckets[(int) Math.floorMod(day, (long) days)];
+        if (bucket.day > day) {
+            return null;
+        }
+        if (bucket.day < day) {
+            bucket.reset(day);
+        }
+        return bucket;
+    }
+
+    private static long epochHour(Instant at) {
+        return Math.floorDiv(at.getEpochSecond(), SECONDS_PER_HOUR);
+    }
+}
@@ -0,0 +1,102 @@
+package com.springbooks.library.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving sketch of the most frequent keys in a stream, in a fixed
+ * number of counters.
+ * <p>
+ * A key that is not tracked takes over the counter with the lowest count
+ * once all counters are in use, inheriting that count. Every key seen more
+ * often than {@code total / capacity} times is guaranteed to be tracked, and
+ * a tracked count overestimates the true one by at most the count it
+ * inherited. Adding a key costs {@code O(log capacity)}. Not thread-safe.
+ */
+public class HeavyHitters {
+
+    private static final class Counter {
+
+        final long key;
+        long count;
+
+        Counter(long key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.comparingLong((Counter c) -> c.count).thenComparingLong(c -> c.key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 1);
+                counters.put(key, counter);
+                byCount.add(counter);
+                return;
+            }
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            counter = new Counter(key, evicted.count + 1);
+            counters.put(key, counter);
+            byCount.add(counter);
+            return;
+        }
+        byCount.remove(counter);
+        counter.count++;
+        byCount.add(counter);
+    }
+
+    /**
+     * Stops tracking a key, e.g. one that no longer exists.
+     */
+    public void remove(long key) {
+        Counter counter = counters.remove(key);
+        if (counter != null) {
+            byCount.remove(counter);
+        }
+    }
+
+    /**
+     * The tracked keys, most frequent first.
+     */
+    public List<Long> keys() {
+        List<Long> keys = new ArrayList<>(counters.size());
+        for (Counter counter : byCount.descendingSet()) {
+            keys.add(counter.key);
+        }
+        return keys;
+    }
+
+    /**
+     * Upper bound of how often {@code key} was added; 0 if it is not tracked.
+     */
+    public long estimate(long key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.count;
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package com.springbooks.library.audit;
+
+import com.springbooks.library.model.entity.AuditRecord;
+
+import java.time.Instant;
+
+/**
+ * An audit entry waiting in the {@link AuditTrail} buffer; becomes one
+ * {@link AuditRecord} row.
+ */
+record AuditEvent(AuditRecord.Action action, Long entityId, Long memberId, String principal, Instant occurredAt) {
+}
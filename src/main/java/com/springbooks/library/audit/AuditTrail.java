@@ -0,0 +1,244 @@
+package com.springbooks.library.audit;
+
+import com.springbooks.library.config.AuditProperties;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.event.LoanOverdueEvent;
+import com.springbooks.library.event.MemberChangedEvent;
+import com.springbooks.library.model.entity.AuditRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records committed book, loan and member changes in the {@code audit_log} table
+ * without a database round trip on the request thread.
+ * <p>
+ * After a transaction commits, each of its changes is put into a lock-free
+ * {@link RingBuffer}; a single writer thread drains the buffer and inserts the
+ * entries in JDBC batches of up to {@code library.audit.batch-size}, one
+ * transaction per batch. Inserts that fail because the database is unavailable
+ * or busy are retried, so during an outage the buffer fills up and the
+ * {@code overflow} policy applies: requests either wait briefly for room or
+ * drop the entry. Dropped entries are counted and reported in the log. Any
+ * other failure is blamed on the data: the batch is written again one entry at
+ * a time and the entries that still fail are discarded and counted as failed,
+ * so a single bad row cannot stall the writer. The buffer is drained on shutdown.
+ */
+@Component
+@Slf4j
+public class AuditTrail {
+
+    /** Counter of audit entries, tagged with the outcome: written, dropped or failed. */
+    public static final String EVENT_COUNTER = "library.audit.events";
+
+    /** Timer of batch inserts. */
+    public static final String FLUSH_TIMER = "library.audit.flush";
+
+    /** Gauge of entries waiting in the buffer. */
+    public static final String PENDING_GAUGE = "library.audit.pending";
+
+    static final String INSERT_SQL =
+            "insert into audit_log (action, entity_id, member_id, principal, occurred_at) values (?, ?, ?, ?, ?)";
+
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditProperties properties;
+    private final RingBuffer<AuditEvent> buffer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final AtomicLong unreportedDrops = new AtomicLong();
+    private final Thread writer = new Thread(this::runWriter, "audit-writer");
+    private volatile boolean running = true;
+
+    public AuditTrail(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      AuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.buffer = new RingBuffer<>(properties.getBufferSize());
+        this.written = meterRegistry.counter(EVENT_COUNTER, "outcome", "written");
+        this.dropped = meterRegistry.counter(EVENT_COUNTER, "outcome", "dropped");
+        this.failed = meterRegistry.counter(EVENT_COUNTER, "outcome", "failed");
+        this.flushTimer = meterRegistry.timer(FLUSH_TIMER);
+        Gauge.builder(PENDING_GAUGE, buffer, RingBuffer::size).register(meterRegistry);
+        writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+        log.info("Audit trail writing in batches of up to {} through a buffer of {} entries",
+                properties.getBatchSize(), buffer.capacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (!buffer.isEmpty()) {
+            log.warn("Audit trail stopped with {} entries unwritten", buffer.size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        AuditRecord.Action action = switch (event.type()) {
+            case CREATED -> AuditRecord.Action.BOOK_CREATED;
+            case UPDATED -> AuditRecord.Action.BOOK_UPDATED;
+            case DELETED -> AuditRecord.Action.BOOK_DELETED;
+        };
+        record(action, event.bookId(), null);
+    }
+
+    @TransactionalEventListener
+    public void onCirculation(BookCirculationEvent event) {
+        record(event.borrowed() ? AuditRecord.Action.BOOK_BORROWED : AuditRecord.Action.BOOK_RETURNED,
+                event.bookId(), event.memberId());
+    }
+
+    @TransactionalEventListener
+    public void onLoanOverdue(LoanOverdueEvent event) {
+        record(AuditRecord.Action.LOAN_OVERDUE, event.bookId(), event.memberId());
+    }
+
+    @TransactionalEventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        record(event.type() == MemberChangedEvent.ChangeType.CREATED
+                        ? AuditRecord.Action.MEMBER_CREATED
+                        : AuditRecord.Action.MEMBER_UPDATED,
+                event.memberId(), null);
+    }
+
+    /**
+     * Queues an entry for the current principal; returns false if it was dropped.
+     */
+    public boolean record(AuditRecord.Action action, Long entityId, Long memberId) {
+        AuditEvent event = new AuditEvent(action, entityId, memberId, currentPrincipal(), Instant.now());
+        if (buffer.offer(event)
+                || properties.getOverflow() == AuditProperties.Overflow.WAIT && awaitRoom(event)) {
+            return true;
+        }
+        dropped.increment();
+        unreportedDrops.incrementAndGet();
+        return false;
+    }
+
+    private boolean awaitRoom(AuditEvent event) {
+        long deadline = System.nanoTime() + properties.getOfferTimeout().toNanos();
+        do {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        } while (System.nanoTime() - deadline < 0);
+        return false;
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, properties.getBatchSize()) == 0) {
+                reportDrops();
+                if (running) {
+                    LockSupport.parkNanos(properties.getFlushInterval().toNanos());
+                } else {
+                    // A producer claimed a slot but has not filled it yet
+                    Thread.yield();
+                }
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+        reportDrops();
+    }
+
+    private void write(List<AuditEvent> batch) {
+        while (true) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+                            statement.setString(1, event.action().name());
+                            statement.setLong(2, event.entityId());
+                            statement.setObject(3, event.memberId());
+                            statement.setString(4, event.principal());
+                            statement.setTimestamp(5, Timestamp.from(event.occurredAt()));
+                        })));
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                // Any failure at all; the writer thread must survive them
+                if (!running) {
+                    failed.increment(batch.size());
+                    log.error("Discarding {} audit entries that could not be written during shutdown", batch.size(), e);
+                    return;
+                }
+                if (isTransient(e)) {
+                    log.warn("Could not write {} audit entries, retrying in {}", batch.size(), properties.getRetryBackoff(), e);
+                    LockSupport.parkNanos(properties.getRetryBackoff().toNanos());
+                } else if (batch.size() > 1) {
+                    log.warn("Could not write {} audit entries, writing them one at a time", batch.size(), e);
+                    for (AuditEvent event : batch) {
+                        write(List.of(event));
+                    }
+                    return;
+                } else {
+                    failed.increment();
+                    log.error("Discarding audit entry that cannot be written: {}", batch.get(0), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Failures that say nothing about the rows, which are worth retrying as they are
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void reportDrops() {
+        long drops = unreportedDrops.getAndSet(0);
+        if (drops > 0) {
+            log.warn("Audit buffer full; dropped {} entries", drops);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.springbooks.library.availability;
+
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory availability of every book, kept as two compressed bitmaps of
+ * book IDs: all catalogued books and the subset currently on the shelf.
+ * Membership checks are constant time and listing walks the available
+ * bitmap in ID order. Reads share a lock; updates take it exclusively.
+ * <p>
+ * Updates carry the version of the book row they were read from and the index
+ * remembers the last version applied per book, so an update that arrives after
+ * a newer one is dropped instead of overwriting it. Versions are kept in a
+ * primitive map, as there is one per catalogued book.
+ */
+public class BookAvailabilityIndex {
+
+    /** Answer to an availability check for a single book. */
+    public enum Availability {
+        AVAILABLE,
+        BORROWED,
+        UNKNOWN
+    }
+
+    private final Roaring64Bitmap catalogued = new Roaring64Bitmap();
+    private final Roaring64Bitmap available = new Roaring64Bitmap();
+    private final LongLongMap versions = new LongLongMap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Records a book as catalogued, replacing any previous state that is not newer.
+     */
+    public void put(long id, boolean borrowed, long version) {
+        lock.writeLock().lock();
+        try {
+            if (isStale(id, version)) {
+                return;
+            }
+            catalogued.addLong(id);
+            apply(id, borrowed, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flips the borrowed state of a catalogued book; unknown IDs and updates
+     * older than the last one applied are ignored.
+     */
+    public void setBorrowed(long id, boolean borrowed, long version) {
+        lock.writeLock().lock();
+        try {
+            if (!catalogued.contains(id) || isStale(id, version)) {
+                return;
+            }
+            apply(id, borrowed, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            catalogued.removeLong(id);
+            available.removeLong(id);
+            versions.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts runs of consecutive IDs; call after a bulk load.
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            catalogued.runOptimize();
+            available.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Availability availability(long id) {
+        lock.readLock().lock();
+        try {
+            if (available.contains(id)) {
+                return Availability.AVAILABLE;
+            }
+            return catalogued.contains(id) ? Availability.BORROWED : Availability.UNKNOWN;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} available book IDs greater than {@code after}, in ascending order.
+     */
+    public List<Long> availableAfter(long after, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (after == Long.MAX_VALUE) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            // Roaring64Bitmap orders IDs as unsigned; negative IDs never occur
+            PeekableLongIterator it = available.getLongIteratorFrom(Math.max(after + 1, 0));
+            while (ids.size() < limit && it.hasNext()) {
+                ids.add(it.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long availableCount() {
+        lock.readLock().lock();
+        try {
+            return available.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long cataloguedCount() {
+        lock.readLock().lock();
+        try {
+            return catalogued.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isStale(long id, long version) {
+        return versions.get(id, -1L) >= version;
+    }
+
+    private void apply(long id, boolean borrowed, long version) {
+        if (borrowed) {
+            available.removeLong(id);
+        } else {
+            available.addLong(id);
+        }
+        versions.put(id, version);
+    }
+}
@@ -0,0 +1,107 @@
+package com.springbooks.library.availability;
+
+import java.util.Arrays;
+
+/**
+ * Map from non-negative {@code long} keys to {@code long} values, stored in two
+ * primitive arrays with linear probing. An entry costs 16 to 32 bytes rather
+ * than a node and two boxed objects. Not thread-safe.
+ */
+final class LongLongMap {
+
+    private static final long FREE = -1L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongLongMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(long key, long defaultValue) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == FREE) {
+                return defaultValue;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must not be negative: " + key);
+        }
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        // Keep at most three quarters of the slots full so probe runs stay short
+        if (++size > keys.length / 4 * 3) {
+            resize(keys.length * 2);
+        }
+    }
+
+    void remove(long key) {
+        int gap = slot(key);
+        while (keys[gap] != key) {
+            if (keys[gap] == FREE) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        // Move later entries of the probe run back into the gap, so lookups never stop early
+        for (int i = (gap + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = FREE;
+        size--;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != FREE) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+}
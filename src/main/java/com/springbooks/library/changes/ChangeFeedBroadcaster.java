@@ -0,0 +1,163 @@
+package com.springbooks.library.changes;
+
+import com.springbooks.library.config.ChangeFeedProperties;
+import com.springbooks.library.exception.ChangeFeedExpiredException;
+import com.springbooks.library.model.response.ChangeResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.service.ChangeFeedService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes committed changes to live tail (Server-Sent Events) subscribers.
+ * <p>
+ * Commits only signal that something changed. A single thread then reads the
+ * feed from the database once per distinct subscriber position and sends the
+ * entries on, so subscribers see exactly what {@code GET /api/changes} would
+ * return, in order, however the commits interleave. Signals that arrive while
+ * a pass is pending are coalesced.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedBroadcaster {
+
+    static final String CHANGE_EVENT = "change";
+    static final String EXPIRED_EVENT = "expired";
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedProperties properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens a live tail that first replays the changes after {@code since}.
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        signal();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Schedules a pass over the subscribers unless one is already pending.
+     */
+    public void signal() {
+        if (!subscribers.isEmpty() && pending.compareAndSet(false, true)) {
+            executor.execute(this::broadcast);
+        }
+    }
+
+    // Also lets proxies and load balancers see traffic on idle connections
+    @Scheduled(fixedRateString = "${library.changes.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                subscriber.close(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void broadcast() {
+        pending.set(false);
+        Map<Long, List<Subscriber>> byPosition = subscribers.stream()
+                .collect(Collectors.groupingBy(subscriber -> subscriber.lastSeq));
+        byPosition.forEach(this::catchUp);
+    }
+
+    private void catchUp(long since, List<Subscriber> group) {
+        try {
+            CursorPage<ChangeResponse> page;
+            long position = since;
+            do {
+                page = changeFeedService.getChanges(position, CursorPage.MAX_SIZE);
+                for (ChangeResponse change : page.getContent()) {
+                    group.forEach(subscriber -> subscriber.send(change));
+                    position = change.getSeq();
+                }
+            } while (page.isHasNext());
+        } catch (ChangeFeedExpiredException e) {
+            group.forEach(subscriber -> subscriber.expire(e));
+        } catch (RuntimeException e) {
+            // Left at their position; the next signal retries
+            log.warn("Could not read the change feed after sequence {}", since, e);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private volatile long lastSeq;
+
+        private Subscriber(SseEmitter emitter, long lastSeq) {
+            this.emitter = emitter;
+            this.lastSeq = lastSeq;
+        }
+
+        void send(ChangeResponse change) {
+            if (change.getSeq() <= lastSeq) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getSeq()))
+                        .name(CHANGE_EVENT)
+                        .data(change));
+                lastSeq = change.getSeq();
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            }
+        }
+
+        void expire(ChangeFeedExpiredException e) {
+            try {
+                emitter.send(SseEmitter.event().name(EXPIRED_EVENT).data(e.getMessage()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ignored) {
+                // Client already gone
+            }
+            subscribers.remove(this);
+        }
+
+        void close(Exception e) {
+            log.debug("Dropping change feed subscriber: {}", e.getMessage());
+            subscribers.remove(this);
+            emitter.completeWithError(e);
+        }
+    }
+}
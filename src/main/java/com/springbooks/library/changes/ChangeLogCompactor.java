@@ -0,0 +1,24 @@
+package com.springbooks.library.changes;
+
+import com.springbooks.library.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Runs {@link ChangeFeedService#compact} on a fixed delay.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogCompactor {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Scheduled(initialDelayString = "${library.changes.compaction-interval:PT1H}",
+               fixedDelayString = "${library.changes.compaction-interval:PT1H}")
+    public void compact() {
+        changeFeedService.compact(Instant.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.springbooks.library.changes;
+
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.event.MemberChangedEvent;
+import com.springbooks.library.model.entity.ChangeLogEntry;
+import com.springbooks.library.repository.ChangeLogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a change log entry for every book and member change, in the
+ * transaction that makes the change.
+ * <p>
+ * Entries are collected while the transaction runs and written just before it
+ * commits: one update reserves a block of sequence numbers on the head row,
+ * and the entries go out as one JDBC batch. The head row stays locked only
+ * from that point to the commit, which is what keeps sequence numbers in
+ * commit order.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogRecorder {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeFeedBroadcaster broadcaster;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        record(ChangeLogEntry.EntityType.BOOK, event.bookId(), ChangeLogEntry.ChangeType.valueOf(event.type().name()));
+    }
+
+    @EventListener
+    public void onCirculation(BookCirculationEvent event) {
+        record(ChangeLogEntry.EntityType.BOOK, event.bookId(),
+                event.borrowed() ? ChangeLogEntry.ChangeType.BORROWED : ChangeLogEntry.ChangeType.RETURNED);
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        record(ChangeLogEntry.EntityType.MEMBER, event.memberId(), ChangeLogEntry.ChangeType.valueOf(event.type().name()));
+    }
+
+    private void record(ChangeLogEntry.EntityType entityType, Long entityId, ChangeLogEntry.ChangeType changeType) {
+        Assert.state(TransactionSynchronizationManager.isSynchronizationActive(),
+                "Changes must be published inside a transaction");
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(new ChangeLogEntry(null, entityType, entityId, changeType, Instant.now()));
+    }
+
+    /**
+     * The entries of one transaction, written before it commits.
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<ChangeLogEntry> entries = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Flush the transaction's own writes first, so no other row lock is
+            // requested while the head row is held
+            entityManager.flush();
+            changeLogRepository.advanceHead(entries.size());
+            long seq = changeLogRepository.findLastSeq() - entries.size();
+            for (ChangeLogEntry entry : entries) {
+                entry.setSeq(++seq);
+                entityManager.persist(entry);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogRecorder.this);
+            if (status == STATUS_COMMITTED) {
+                broadcaster.signal();
+            }
+        }
+    }
+}
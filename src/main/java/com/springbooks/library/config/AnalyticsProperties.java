@@ -0,0 +1,18 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the circulation rollups, bound from {@code library.analytics}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.analytics")
+public class AnalyticsProperties {
+
+    /** UTC days kept; also the longest window the analytics endpoints answer for. */
+    private int retentionDays = 7;
+
+    /** Counters per daily heavy-hitters sketch of books and of members. */
+    private int sketchCapacity = 256;
+}
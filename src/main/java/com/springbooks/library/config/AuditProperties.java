@@ -0,0 +1,39 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the audit trail, bound from {@code library.audit}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.audit")
+public class AuditProperties {
+
+    public enum Overflow {
+        /** Wait up to {@code offer-timeout} for the writer to make room, then drop. */
+        WAIT,
+        /** Drop the entry at once. */
+        DROP
+    }
+
+    /** Entries buffered in memory ahead of the writer; rounded up to a power of two. */
+    private int bufferSize = 8192;
+
+    /** Maximum number of rows per batch insert. */
+    private int batchSize = 500;
+
+    /** How long the writer sleeps when the buffer is empty. */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /** What a request does when the buffer is full. */
+    private Overflow overflow = Overflow.WAIT;
+
+    /** How long a request waits for room in a full buffer under {@code WAIT}. */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    /** Pause before a failed batch insert is retried. */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,30 @@
+package com.springbooks.library.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caffeine caches in front of the single-entity lookups. Size, TTL and stats
+ * recording are set with {@code spring.cache.caffeine.spec}.
+ * <p>
+ * The cache advice runs outside the transaction advice: cache hits never open a
+ * transaction, and evictions happen after the service transaction has committed.
+ * That alone does not keep entries fresh, since a read that missed before the
+ * commit can put its pre-commit value after the eviction:
+ * <ul>
+ *   <li>Members are loaded with {@code sync}, which runs the load inside
+ *       Caffeine's atomic compute; an eviction waits for an in-flight load and
+ *       then removes what it put.</li>
+ *   <li>Books go through {@link com.springbooks.library.etag.TaggedBookCache},
+ *       which also has to keep old bodies from being served under a new ETag.</li>
+ * </ul>
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+
+    public static final String MEMBERS = "members";
+}
@@ -0,0 +1,15 @@
+package com.springbooks.library.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Schedules change log compaction and live tail heartbeats; intervals are set
+ * with {@code library.changes.compaction-interval} and {@code heartbeat-interval}.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+}
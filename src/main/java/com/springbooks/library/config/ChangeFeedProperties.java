@@ -0,0 +1,23 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the change feed, bound from {@code library.changes}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.changes")
+public class ChangeFeedProperties {
+
+    /** Age after which entries superseded by a later change to the same entity are deleted. */
+    private Duration compactAfter = Duration.ofHours(1);
+
+    /** How long deletions stay in the feed; consumers further behind must resync. */
+    private Duration tombstoneRetention = Duration.ofDays(7);
+
+    /** How long a live tail connection stays open before the client has to reconnect. */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
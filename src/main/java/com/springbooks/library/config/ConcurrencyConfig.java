@@ -0,0 +1,64 @@
+package com.springbooks.library.config;
+
+import com.springbooks.library.filter.ConcurrencyLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.sql.DataSource;
+
+/**
+ * Bounds concurrent API requests by the JDBC connection pool.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} (Java 21+) Tomcat serves every
+ * request on its own virtual thread and no longer caps concurrency at its
+ * thread pool. Every API request needs a connection, so beyond the pool size
+ * extra requests would only queue inside Hikari until its connection timeout.
+ * The limiter queues them cheaply instead and sheds load with 503 after
+ * {@code library.concurrency.acquire-timeout}. It only applies while requests
+ * actually run on virtual threads; on platform threads, including on Java 17
+ * with the flag set, Tomcat's thread pool already bounds concurrency.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@Slf4j
+public class ConcurrencyConfig {
+
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(prefix = "library.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties,
+            ObjectProvider<DataSource> dataSource,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        int limit = properties.getMaxConcurrentRequests() != null
+                ? properties.getMaxConcurrentRequests()
+                : poolSize(dataSource.getIfAvailable());
+        log.info("Limiting concurrent API requests to {}", limit);
+        
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(limit, properties.getAcquireTimeout(), exceptionResolver)
+        );
+        // Registered after the security filter chain so rejected credentials never take a slot
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_MAX_CONCURRENT_REQUESTS;
+    }
+}
@@ -0,0 +1,23 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the API concurrency limiter, bound from {@code library.concurrency}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.concurrency")
+public class ConcurrencyLimitProperties {
+
+    /** Whether to limit concurrent API requests while they run on virtual threads. */
+    private boolean enabled = true;
+
+    /** Maximum number of API requests in flight; defaults to the connection pool size. */
+    private Integer maxConcurrentRequests;
+
+    /** How long a request waits for a slot before it is rejected with 503. */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
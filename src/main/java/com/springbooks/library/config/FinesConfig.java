@@ -0,0 +1,15 @@
+package com.springbooks.library.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Schedules the nightly fine settlement; the schedule is set with
+ * {@code library.fines.cron}.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(FinesProperties.class)
+public class FinesConfig {
+}
@@ -0,0 +1,33 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+
+/**
+ * Settings for overdue fines, bound from {@code library.fines}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.fines")
+public class FinesProperties {
+
+    /** Charged per loan for each day that starts with the loan out past its due date. */
+    private BigDecimal dailyRate = new BigDecimal("0.25");
+
+    /** Most a single loan is charged in total. */
+    private BigDecimal maxPerLoan = new BigDecimal("10.00");
+
+    /** Members owing more than this cannot borrow. */
+    private BigDecimal borrowLimit = new BigDecimal("5.00");
+
+    /** Time zone in which fine days start. */
+    private ZoneId zone = ZoneId.of("UTC");
+
+    /** Member IDs per settlement chunk; each chunk commits on its own. */
+    private int chunkSize = 1000;
+
+    /** Chunks settled at the same time. */
+    private int parallelism = 4;
+}
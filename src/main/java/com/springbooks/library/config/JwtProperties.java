@@ -0,0 +1,29 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * JWT decoding settings, bound from {@code library.security.jwt}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.security.jwt")
+public class JwtProperties {
+
+    /** Verify RS256 signatures against the local JWK set instead of accepting any well-formed token. */
+    private boolean verifySignatures;
+
+    /** Upper bound on how long a decoded token is reused; tokens are never reused past their expiry. */
+    private Duration cacheMaxTtl = Duration.ofMinutes(5);
+
+    /** Maximum number of decoded tokens kept. */
+    private long cacheMaxSize = 100_000;
+
+    /** How long the JWK set is used before it is fetched again. */
+    private Duration jwksTtl = Duration.ofMinutes(5);
+
+    /** Minimum time between JWK set fetches triggered by tokens signed with an unknown key. */
+    private Duration jwksRefreshCooldown = Duration.ofSeconds(30);
+}
@@ -0,0 +1,49 @@
+package com.springbooks.library.config;
+
+import com.springbooks.library.filter.StatementCountFilter;
+import com.springbooks.library.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics beyond Spring Boot's built-in HTTP, JVM, pool and cache
+ * meters: timing of {@code @Timed} service methods and per-request SQL
+ * statement counts. Percentiles and histograms are configured under
+ * {@code management.metrics.distribution}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Timer recorded for every public method of the {@code @Timed} service classes. */
+    public static final String SERVICE_TIMER = "library.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(StatementCounter statementCounter,
+                                                                             MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(
+            new StatementCountFilter(statementCounter, meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
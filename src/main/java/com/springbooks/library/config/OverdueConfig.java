@@ -0,0 +1,15 @@
+package com.springbooks.library.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Schedules the overdue sweeper; the interval is set with
+ * {@code library.overdue.sweep-interval}.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OverdueProperties.class)
+public class OverdueConfig {
+}
@@ -0,0 +1,24 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the overdue sweeper, bound from {@code library.overdue}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.overdue")
+public class OverdueProperties {
+
+    /**
+     * How far ahead of now loans are loaded into the sweeper's queue. Loans
+     * opened with a due date earlier than the latest one already loaded are
+     * not seen until restart, so keep this below the loan period.
+     */
+    private Duration lookahead = Duration.ofHours(1);
+
+    /** Loans read or flagged per statement. */
+    private int batchSize = 500;
+}
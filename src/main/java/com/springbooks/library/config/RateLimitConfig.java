@@ -0,0 +1,28 @@
+package com.springbooks.library.config;
+
+import com.springbooks.library.ratelimit.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-client request rate limits, so one client hammering an endpoint cannot
+ * take the connection pool from everyone else. Limits are set per endpoint
+ * group under {@code library.rate-limit.groups}; {@link SecurityConfig} puts
+ * the limiter into the filter chain when it is enabled.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@Slf4j
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.rate-limit", name = "enabled", havingValue = "true")
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        properties.getGroups().forEach((name, group) -> log.info("Rate limiting {} requests to {} per {} per client",
+                name, group.getLimit(), group.getPeriod()));
+        return new RateLimiter(properties);
+    }
+}
@@ -0,0 +1,44 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings for the per-client rate limiter, bound from {@code library.rate-limit}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.rate-limit")
+public class RateLimitProperties {
+
+    /** Whether to limit request rates per client. */
+    private boolean enabled;
+
+    /** Endpoint groups with their own limits; a request counts against the first group it matches. */
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    /** Most clients tracked at once; idle clients are forgotten first. */
+    private long maxClients = 100_000;
+
+    @Data
+    public static class Group {
+
+        /** Ant-style path patterns. */
+        private List<String> paths = List.of("/api/**");
+
+        /** HTTP methods; empty matches all. */
+        private List<String> methods = List.of();
+
+        /** Requests allowed per period, on average. */
+        private int limit;
+
+        private Duration period = Duration.ofSeconds(1);
+
+        /** Requests a client may make back to back; defaults to limit. */
+        private Integer burst;
+    }
+}
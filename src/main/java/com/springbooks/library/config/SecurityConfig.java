@@ -1,25 +1,47 @@
 package com.springbooks.library.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.springbooks.library.filter.RateLimitFilter;
+import com.springbooks.library.ratelimit.RateLimiter;
+import com.springbooks.library.security.CachingJwkSource;
+import com.springbooks.library.security.CachingJwtDecoder;
+import com.springbooks.library.security.LocalJwkSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.util.Arrays;
 
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(JwtProperties.class)
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder, JwtProperties jwtProperties,
+                                           ObjectProvider<RateLimiter> rateLimiter,
+                                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver)
+            throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -27,14 +49,22 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").authenticated()
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> jwt.decoder(jwtDecoder()))
+                .jwt(jwt -> jwt.decoder(jwtDecoder))
             )
             // For accessing h2 console UI
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()));
+        
+        // After authentication so clients are told apart by token subject; anonymous requests, and all
+        // requests when the development decoder gives every token the same subject, by address
+        rateLimiter.ifAvailable(limiter -> http.addFilterAfter(
+            new RateLimitFilter(limiter, exceptionResolver, jwtProperties.isVerifySignatures()),
+            BearerTokenAuthenticationFilter.class));
 
         return http.build();
     }
@@ -53,8 +83,42 @@ public class SecurityConfig {
     }
 
  
+    /**
+     * Decoded tokens are cached, so repeat requests with the same bearer token
+     * skip parsing and signature checks. Cache hits and misses are published as
+     * the {@code cache.gets} metric with {@code cache=jwt}.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JwtProperties properties, ObjectProvider<LocalJwkSet> localJwkSet,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        JwtDecoder delegate = properties.isVerifySignatures()
+                ? verifyingJwtDecoder(localJwkSet.getObject(), properties)
+                : developmentJwtDecoder();
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, properties.getCacheMaxTtl(), properties.getCacheMaxSize());
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, decoder.getCache(), "jwt"));
+        return decoder;
+    }
+
+    /**
+     * Stand-in for the identity provider's JWKS endpoint, used when signatures are verified.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    @ConditionalOnProperty(prefix = "library.security.jwt", name = "verify-signatures", havingValue = "true")
+    public LocalJwkSet localJwkSet() {
+        return new LocalJwkSet();
+    }
+
+    private JwtDecoder verifyingJwtDecoder(LocalJwkSet jwkSet, JwtProperties properties) {
+        CachingJwkSource keySource = new CachingJwkSource(jwkSet, properties.getJwksTtl(), properties.getJwksRefreshCooldown());
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+        // Claims are validated by NimbusJwtDecoder's own validators
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    // Accepts any well-formed token; for local development only
+    private JwtDecoder developmentJwtDecoder() {
         return token -> {
             try {
                 String[] parts = token.split("\\.");
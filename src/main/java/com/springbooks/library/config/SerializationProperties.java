@@ -0,0 +1,30 @@
+package com.springbooks.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings for response serialization, bound from {@code library.serialization}.
+ */
+@Data
+@ConfigurationProperties(prefix = "library.serialization")
+public class SerializationProperties {
+
+    /**
+     * Endpoints that can write books with {@code BookJsonWriter}.
+     */
+    public enum Endpoint {
+        BOOK_LIST,
+        BOOK_EXPORT
+    }
+
+    /** Endpoints that write book entities directly instead of mapping them and going through Jackson. */
+    private Set<Endpoint> directJson = EnumSet.noneOf(Endpoint.class);
+
+    public boolean isDirectJson(Endpoint endpoint) {
+        return directJson.contains(endpoint);
+    }
+}
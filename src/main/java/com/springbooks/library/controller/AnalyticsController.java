@@ -0,0 +1,127 @@
+package com.springbooks.library.controller;
+
+import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+import com.springbooks.library.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Analytics", description = "Circulation statistics from pre-aggregated rollups")
+@SecurityRequirement(name = "bearerAuth")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/books/top")
+    @Operation(summary = "Get the most borrowed books", description = "Ranks books by borrows over the last days UTC days, including today")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Most borrowed books retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<List<BorrowCountResponse>>> getMostBorrowedBooks(
+            @Parameter(description = "Days to cover (max library.analytics.retention-days)") @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Number of books (max " + AnalyticsService.MAX_LIMIT + ")") @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching most borrowed books of the last {} days", days);
+        
+        List<BorrowCountResponse> books = analyticsService.getMostBorrowedBooks(days, limit);
+        ApiResponse<List<BorrowCountResponse>> response = ApiResponse.success(
+            books, 
+            "Most borrowed books retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/members/top")
+    @Operation(summary = "Get the most active members", description = "Ranks members by borrows over the last days UTC days, including today")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Most active members retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<List<BorrowCountResponse>>> getMostActiveMembers(
+            @Parameter(description = "Days to cover (max library.analytics.retention-days)") @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Number of members (max " + AnalyticsService.MAX_LIMIT + ")") @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching most active members of the last {} days", days);
+        
+        List<BorrowCountResponse> members = analyticsService.getMostActiveMembers(days, limit);
+        ApiResponse<List<BorrowCountResponse>> response = ApiResponse.success(
+            members, 
+            "Most active members retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/books/{bookId}")
+    @Operation(summary = "Get borrows of a book", description = "Counts a book's borrows over the last days UTC days, including today")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Borrows retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BorrowCountResponse>> getBookBorrows(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "Days to cover (max library.analytics.retention-days)") @RequestParam(defaultValue = "7") int days) {
+        log.info("Fetching borrows of book ID: {}", bookId);
+        
+        BorrowCountResponse borrows = analyticsService.getBookBorrows(bookId, days);
+        ApiResponse<BorrowCountResponse> response = ApiResponse.success(
+            borrows, 
+            "Borrows retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/members/{memberId}")
+    @Operation(summary = "Get borrows by a member", description = "Counts a member's borrows over the last days UTC days, including today")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Borrows retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BorrowCountResponse>> getMemberBorrows(
+            @Parameter(description = "Member ID") @PathVariable Long memberId,
+            @Parameter(description = "Days to cover (max library.analytics.retention-days)") @RequestParam(defaultValue = "7") int days) {
+        log.info("Fetching borrows by member ID: {}", memberId);
+        
+        BorrowCountResponse borrows = analyticsService.getMemberBorrows(memberId, days);
+        ApiResponse<BorrowCountResponse> response = ApiResponse.success(
+            borrows, 
+            "Borrows retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/circulation/hourly")
+    @Operation(summary = "Get hourly circulation", description = "Retrieves borrows and returns per UTC hour for the last hours hours, oldest first")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hourly circulation retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<List<HourlyCirculationResponse>>> getHourlyCirculation(
+            @Parameter(description = "Hours to cover, including the current one") @RequestParam(defaultValue = "24") int hours) {
+        log.info("Fetching hourly circulation of the last {} hours", hours);
+        
+        List<HourlyCirculationResponse> circulation = analyticsService.getHourlyCirculation(hours);
+        ApiResponse<List<HourlyCirculationResponse>> response = ApiResponse.success(
+            circulation, 
+            "Hourly circulation retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,21 +1,45 @@
 package com.springbooks.library.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbooks.library.config.SerializationProperties;
+import com.springbooks.library.etag.CatalogVersions;
+import com.springbooks.library.json.BookJsonWriter;
+import com.springbooks.library.json.BookRowsPage;
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.request.AvailabilityRequest;
 import com.springbooks.library.model.request.BookRequest;
 import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.AvailabilityResponse;
 import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.BulkImportResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.SearchPage;
+import com.springbooks.library.service.BookAvailabilityService;
+import com.springbooks.library.service.BookSearchService;
 import com.springbooks.library.service.BookService;
+import com.springbooks.library.util.ChunkedImporter;
+import com.springbooks.library.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 
@@ -28,6 +52,11 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookSearchService bookSearchService;
+    private final BookAvailabilityService bookAvailabilityService;
+    private final ObjectMapper objectMapper;
+    private final SerializationProperties serializationProperties;
+    private final CatalogVersions catalogVersions;
 
     @PostMapping
     @Operation(summary = "Add a new book", description = "Creates a new book in the library system")
@@ -50,43 +79,202 @@ public class BookController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk add books", description = "Creates books from a JSON array, skipping invalid rows and existing ISBNs, and reports the outcome of every row")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk import completed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Malformed request body"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BulkImportResponse>> bulkCreateBooks(
+            @RequestBody List<BookRequest> requests) {
+        log.info("Bulk importing {} books", requests.size());
+        
+        BulkImportResponse result = new BulkImportResponse();
+        ChunkedImporter.importAll(requests.iterator(), ChunkedImporter.DEFAULT_CHUNK_SIZE,
+            bookService::createBooks, result::add);
+        ApiResponse<BulkImportResponse> response = ApiResponse.success(
+            result, 
+            "Bulk import completed"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk add books from a stream", description = "Creates books from newline-delimited JSON and streams back one result line per input line")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk import results streamed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<StreamingResponseBody> bulkCreateBooksFromStream(HttpServletRequest request) {
+        log.info("Bulk importing books from NDJSON stream");
+        
+        StreamingResponseBody body = outputStream -> {
+            try (MappingIterator<BookRequest> requests = objectMapper.readerFor(BookRequest.class)
+                    .readValues(request.getInputStream())) {
+                ChunkedImporter.importAll(requests, ChunkedImporter.DEFAULT_CHUNK_SIZE,
+                    bookService::createBooks, new NdjsonWriter<>(objectMapper, BulkItemResult.class, outputStream));
+            }
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all books", description = "Retrieves a list of all books in the library")
+    @Operation(summary = "Get all books", description = "Retrieves a page of books ordered by ID; pass nextCursor as cursor to fetch the next page")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag in If-None-Match"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<ApiResponse<List<BookResponse>>> getAllBooks() {
-        log.info("Fetching all books");
+    public ResponseEntity<?> getAllBooks(
+            @Parameter(description = "ID of the last book on the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        log.info("Fetching books after cursor: {}", cursor);
+        
+        // Taken before the query; see CatalogVersions
+        String etag = catalogVersions.catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         
-        List<BookResponse> books = bookService.getAllBooks();
-        ApiResponse<List<BookResponse>> response = ApiResponse.success(
+        if (serializationProperties.isDirectJson(SerializationProperties.Endpoint.BOOK_LIST)) {
+            CursorPage<Book> rows = bookService.getBookRows(cursor, CursorPage.clampSize(size));
+            return revalidated(etag).body(new BookRowsPage(rows, "Books retrieved successfully"));
+        }
+        
+        CursorPage<BookResponse> books = bookService.getAllBooks(cursor, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<BookResponse>> response = ApiResponse.success(
             books, 
             "Books retrieved successfully"
         );
         
+        return revalidated(etag).body(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search books", description = "Full-text search over titles and authors; every word must match, and words match as prefixes")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Search completed successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Page beyond the first " + BookSearchService.MAX_RESULT_WINDOW + " hits"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<SearchPage<BookResponse>>> searchBooks(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Searching books for: {}", q);
+        
+        SearchPage<BookResponse> results = bookSearchService.search(q, Math.max(page, 0), CursorPage.clampSize(size));
+        ApiResponse<SearchPage<BookResponse>> response = ApiResponse.success(
+            results, 
+            "Search completed successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/available")
+    @Operation(summary = "Get available book IDs", description = "Retrieves a page of IDs of books that are not currently borrowed, ordered by ID")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Available books retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<Long>>> getAvailableBooks(
+            @Parameter(description = "Last book ID on the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Fetching available book IDs after cursor: {}", cursor);
+        
+        CursorPage<Long> ids = bookAvailabilityService.getAvailableBookIds(cursor, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<Long>> response = ApiResponse.success(
+            ids, 
+            "Available books retrieved successfully"
+        );
+        
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/availability")
+    @Operation(summary = "Check availability", description = "Splits the given book IDs into available, borrowed and unknown")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Availability checked successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> checkAvailability(@Valid @RequestBody AvailabilityRequest request) {
+        log.info("Checking availability of {} books", request.getBookIds().size());
+        
+        AvailabilityResponse availability = bookAvailabilityService.checkAvailability(request.getBookIds());
+        ApiResponse<AvailabilityResponse> response = ApiResponse.success(
+            availability, 
+            "Availability checked successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all books", description = "Streams the whole catalog as newline-delimited JSON")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books streamed successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        log.info("Exporting all books");
+        
+        StreamingResponseBody body;
+        if (serializationProperties.isDirectJson(SerializationProperties.Endpoint.BOOK_EXPORT)) {
+            body = outputStream -> {
+                try (BookJsonWriter writer = new BookJsonWriter(outputStream)) {
+                    bookService.streamAllBookRows(book -> {
+                        try {
+                            writer.writeLine(book);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            };
+        } else {
+            body = outputStream ->
+                bookService.streamAllBooks(new NdjsonWriter<>(objectMapper, BookResponse.class, outputStream));
+        }
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
 
     @GetMapping("/{id}")
     @Operation(summary = "Get book by ID", description = "Retrieves details of a specific book")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Book retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Book unchanged since the ETag in If-None-Match"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Book not found"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     public ResponseEntity<ApiResponse<BookResponse>> getBookById(
-            @Parameter(description = "Book ID") @PathVariable Long id) {
+            @Parameter(description = "Book ID") @PathVariable Long id,
+            WebRequest webRequest) {
         log.info("Fetching book with ID: {}", id);
         
+        String etag = catalogVersions.bookETag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
         BookResponse bookResponse = bookService.getBookById(id);
         ApiResponse<BookResponse> response = ApiResponse.success(
             bookResponse, 
             "Book retrieved successfully"
         );
         
-        return ResponseEntity.ok(response);
+        return revalidated(etag).body(response);
     }
 
     @PutMapping("/{id}")
@@ -128,4 +316,14 @@ public class BookController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * 200 response tagged with {@code etag}; clients may cache it but must
+     * revalidate with If-None-Match before reusing it.
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate());
+    }
 }
@@ -0,0 +1,87 @@
+package com.springbooks.library.controller;
+
+import com.springbooks.library.changes.ChangeFeedBroadcaster;
+import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.ChangeResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Changes", description = "Incremental change feed for books and members")
+@SecurityRequirement(name = "bearerAuth")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedBroadcaster broadcaster;
+
+    @GetMapping
+    @Operation(summary = "Get changes", description = "Retrieves the book and member changes committed after sequence number since, oldest first, "
+            + "each with the entity's current state; pass nextCursor as since to fetch the next page")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "410", description = "Changes after since were compacted; copy the catalog again"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<ChangeResponse>>> getChanges(
+            @Parameter(description = "Sequence number of the last change already applied") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Fetching changes after sequence: {}", since);
+        
+        CursorPage<ChangeResponse> changes = changeFeedService.getChanges(since, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<ChangeResponse>> response = ApiResponse.success(
+            changes, 
+            "Changes retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/head")
+    @Operation(summary = "Get the latest sequence number", description = "Read this before copying the catalog, then follow the feed from it")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Sequence number retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<Long>> getHead() {
+        log.info("Fetching change feed head");
+        
+        ApiResponse<Long> response = ApiResponse.success(
+            changeFeedService.getLastSeq(), 
+            "Sequence number retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Tail changes", description = "Streams changes after since as Server-Sent Events named 'change' with the sequence number as event ID; "
+            + "reconnecting clients resume from Last-Event-ID")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stream opened"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "410", description = "Changes after since were compacted; copy the catalog again"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Sequence number of the last change already applied") @RequestParam(required = false) Long since,
+            @Parameter(hidden = true) @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : since != null ? since : changeFeedService.getLastSeq();
+        log.info("Opening change stream after sequence: {}", from);
+        
+        changeFeedService.assertCursorAvailable(from);
+        return broadcaster.subscribe(from);
+    }
+}
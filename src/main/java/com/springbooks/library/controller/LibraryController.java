@@ -1,26 +1,41 @@
 package com.springbooks.library.controller;
 
+import com.springbooks.library.model.request.BatchBorrowRequest;
+import com.springbooks.library.model.request.BatchMode;
+import com.springbooks.library.model.request.BatchReturnRequest;
 import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.BatchCirculationResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.HoldResponse;
+import com.springbooks.library.model.response.LoanResponse;
 import com.springbooks.library.service.BookService;
+import com.springbooks.library.service.HoldService;
+import com.springbooks.library.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Slf4j
-@Tag(name = "Library Operations", description = "Book borrowing and returning operations")
+@Tag(name = "Library Operations", description = "Book borrowing, returning and hold operations")
 @SecurityRequirement(name = "bearerAuth")
 public class LibraryController {
 
     private final BookService bookService;
+    private final LoanService loanService;
+    private final HoldService holdService;
 
     @PostMapping("/borrow/{bookId}/member/{memberId}")
     @Operation(summary = "Borrow a book", description = "Allows a member to borrow a book from the library")
@@ -63,4 +78,183 @@ public class LibraryController {
         
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/borrow/batch")
+    @Operation(summary = "Borrow several books", description = "Borrows a list of books for one member in one transaction and reports the outcome per book. "
+            + "In ALL_OR_NOTHING mode (the default) nothing is borrowed unless every book can be; in PARTIAL mode the available books are borrowed")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see the per-book results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Member not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "All-or-nothing batch rejected; see the per-book results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BatchCirculationResponse>> borrowBooks(@Valid @RequestBody BatchBorrowRequest request) {
+        log.info("Processing batch borrow of {} books by member ID: {}", request.getBookIds().size(), request.getMemberId());
+        
+        BatchCirculationResponse result = bookService.borrowBooks(request.getMemberId(), request.getBookIds(), modeOf(request.getMode()));
+        return batchResponse(result, "Books borrowed successfully", "No books were borrowed");
+    }
+
+    @PostMapping("/return/batch")
+    @Operation(summary = "Return several books", description = "Returns a list of books in one transaction and reports the outcome per book. "
+            + "In ALL_OR_NOTHING mode (the default) nothing is returned unless every book can be; in PARTIAL mode the borrowed books are returned")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see the per-book results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "All-or-nothing batch rejected; see the per-book results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BatchCirculationResponse>> returnBooks(@Valid @RequestBody BatchReturnRequest request) {
+        log.info("Processing batch return of {} books", request.getBookIds().size());
+        
+        BatchCirculationResponse result = bookService.returnBooks(request.getBookIds(), modeOf(request.getMode()));
+        return batchResponse(result, "Books returned successfully", "No books were returned");
+    }
+
+    @PostMapping("/holds/{bookId}/member/{memberId}")
+    @Operation(summary = "Place a hold", description = "Queues a member for a borrowed book; when the book is returned it is lent to the first member in its queue")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Hold placed successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Book is available"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Book or member not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Member already holds or has borrowed the book"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<HoldResponse>> placeHold(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "Member ID") @PathVariable Long memberId) {
+        log.info("Placing hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        HoldResponse hold = holdService.placeHold(bookId, memberId);
+        ApiResponse<HoldResponse> response = ApiResponse.success(
+            hold, 
+            "Hold placed successfully"
+        );
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/holds/{bookId}/member/{memberId}")
+    @Operation(summary = "Get hold position", description = "Retrieves a member's position in a book's hold queue")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hold retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No hold for this book and member"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<HoldResponse>> getHold(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "Member ID") @PathVariable Long memberId) {
+        log.info("Fetching hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        HoldResponse hold = holdService.getHold(bookId, memberId);
+        ApiResponse<HoldResponse> response = ApiResponse.success(
+            hold, 
+            "Hold retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/holds/{bookId}/member/{memberId}")
+    @Operation(summary = "Cancel a hold", description = "Removes a member from a book's hold queue")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hold cancelled successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No hold for this book and member"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<Object>> cancelHold(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "Member ID") @PathVariable Long memberId) {
+        log.info("Cancelling hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        holdService.cancelHold(bookId, memberId);
+        ApiResponse<Object> response = ApiResponse.success(
+            "Hold cancelled successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/loans/member/{memberId}")
+    @Operation(summary = "Get current loans of a member", description = "Retrieves the books a member currently has borrowed")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Loans retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Member not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<List<LoanResponse>>> getActiveLoansForMember(
+            @Parameter(description = "Member ID") @PathVariable Long memberId) {
+        log.info("Fetching active loans for member ID: {}", memberId);
+        
+        List<LoanResponse> loans = loanService.getActiveLoansForMember(memberId);
+        ApiResponse<List<LoanResponse>> response = ApiResponse.success(
+            loans, 
+            "Loans retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/loans/book/{bookId}")
+    @Operation(summary = "Get loan history of a book", description = "Retrieves a page of a book's loans, newest first; pass nextCursor as cursor to fetch older loans")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Loans retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Book not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<LoanResponse>>> getLoanHistoryForBook(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "ID of the last loan on the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Fetching loan history for book ID: {}", bookId);
+        
+        CursorPage<LoanResponse> loans = loanService.getLoanHistoryForBook(bookId, cursor, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<LoanResponse>> response = ApiResponse.success(
+            loans, 
+            "Loans retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/loans/overdue")
+    @Operation(summary = "Get overdue loans", description = "Retrieves a page of loans past their due date and not yet returned, oldest due date first; pass nextCursor as cursor to fetch the next page")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Overdue loans retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<LoanResponse>>> getOverdueLoans(
+            @Parameter(description = "ID of the last loan on the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Fetching overdue loans");
+        
+        CursorPage<LoanResponse> loans = loanService.getOverdueLoans(cursor, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<LoanResponse>> response = ApiResponse.success(
+            loans, 
+            "Overdue loans retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    private static BatchMode modeOf(BatchMode mode) {
+        return mode == null ? BatchMode.ALL_OR_NOTHING : mode;
+    }
+
+    private static ResponseEntity<ApiResponse<BatchCirculationResponse>> batchResponse(
+            BatchCirculationResponse result, String successMessage, String rejectedMessage) {
+        if (result.isRejected()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.failure(
+                result,
+                rejectedMessage
+            ));
+        }
+        ApiResponse<BatchCirculationResponse> response = ApiResponse.success(
+            result,
+            successMessage
+        );
+        
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,20 +1,33 @@
 package com.springbooks.library.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbooks.library.model.request.FinePaymentRequest;
 import com.springbooks.library.model.request.MemberRequest;
 import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.BulkImportResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.FineBalanceResponse;
 import com.springbooks.library.model.response.MemberResponse;
+import com.springbooks.library.service.FineService;
 import com.springbooks.library.service.MemberService;
+import com.springbooks.library.util.ChunkedImporter;
+import com.springbooks.library.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +40,8 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final FineService fineService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Register a new member", description = "Registers a new member in the library system")
@@ -49,17 +64,63 @@ public class MemberController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk register members", description = "Registers members from a JSON array, skipping invalid rows and registered emails, and reports the outcome of every row")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk registration completed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Malformed request body"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<BulkImportResponse>> bulkRegisterMembers(
+            @RequestBody List<MemberRequest> requests) {
+        log.info("Bulk registering {} members", requests.size());
+        
+        BulkImportResponse result = new BulkImportResponse();
+        ChunkedImporter.importAll(requests.iterator(), ChunkedImporter.DEFAULT_CHUNK_SIZE,
+            memberService::registerMembers, result::add);
+        ApiResponse<BulkImportResponse> response = ApiResponse.success(
+            result, 
+            "Bulk registration completed"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk register members from a stream", description = "Registers members from newline-delimited JSON and streams back one result line per input line")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bulk registration results streamed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<StreamingResponseBody> bulkRegisterMembersFromStream(HttpServletRequest request) {
+        log.info("Bulk registering members from NDJSON stream");
+        
+        StreamingResponseBody body = outputStream -> {
+            try (MappingIterator<MemberRequest> requests = objectMapper.readerFor(MemberRequest.class)
+                    .readValues(request.getInputStream())) {
+                ChunkedImporter.importAll(requests, ChunkedImporter.DEFAULT_CHUNK_SIZE,
+                    memberService::registerMembers, new NdjsonWriter<>(objectMapper, BulkItemResult.class, outputStream));
+            }
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all members", description = "Retrieves a list of all members in the library")
+    @Operation(summary = "Get all members", description = "Retrieves a page of members ordered by ID; pass nextCursor as cursor to fetch the next page")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Members retrieved successfully"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<ApiResponse<List<MemberResponse>>> getAllMembers() {
-        log.info("Fetching all members");
+    public ResponseEntity<ApiResponse<CursorPage<MemberResponse>>> getAllMembers(
+            @Parameter(description = "ID of the last member on the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page size (max " + CursorPage.MAX_SIZE + ")") @RequestParam(required = false) Integer size) {
+        log.info("Fetching members after cursor: {}", cursor);
         
-        List<MemberResponse> members = memberService.getAllMembers();
-        ApiResponse<List<MemberResponse>> response = ApiResponse.success(
+        CursorPage<MemberResponse> members = memberService.getAllMembers(cursor, CursorPage.clampSize(size));
+        ApiResponse<CursorPage<MemberResponse>> response = ApiResponse.success(
             members, 
             "Members retrieved successfully"
         );
@@ -67,6 +128,23 @@ public class MemberController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all members", description = "Streams all members as newline-delimited JSON")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Members streamed successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        log.info("Exporting all members");
+        
+        StreamingResponseBody body = outputStream ->
+            memberService.streamAllMembers(new NdjsonWriter<>(objectMapper, MemberResponse.class, outputStream));
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get member by ID", description = "Retrieves details of a specific member")
     @ApiResponses(value = {
@@ -110,4 +188,46 @@ public class MemberController {
         
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/{id}/fines")
+    @Operation(summary = "Get fine balance", description = "Retrieves a member's unpaid fines and whether they may borrow")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Fine balance retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Member not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<FineBalanceResponse>> getFineBalance(
+            @Parameter(description = "Member ID") @PathVariable Long id) {
+        log.info("Fetching fine balance for member ID: {}", id);
+        
+        FineBalanceResponse balance = fineService.getBalance(id);
+        ApiResponse<FineBalanceResponse> response = ApiResponse.success(
+            balance, 
+            "Fine balance retrieved successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/fines/payments")
+    @Operation(summary = "Pay fines", description = "Takes a payment off a member's fine balance; any amount over the balance is not applied")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Fine payment recorded successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Member not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ApiResponse<FineBalanceResponse>> payFines(
+            @Parameter(description = "Member ID") @PathVariable Long id,
+            @Valid @RequestBody FinePaymentRequest request) {
+        log.info("Recording fine payment for member ID: {}", id);
+        
+        FineBalanceResponse balance = fineService.payFines(id, request.getAmount());
+        ApiResponse<FineBalanceResponse> response = ApiResponse.success(
+            balance, 
+            "Fine payment recorded successfully"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
 }
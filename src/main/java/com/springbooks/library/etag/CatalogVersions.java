@@ -0,0 +1,83 @@
+package com.springbooks.library.etag;
+
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change versions for the catalog and each book, used as strong
+ * ETags so unchanged catalog reads can be answered with 304 without touching
+ * the database.
+ * <p>
+ * Every committed create, update, delete, borrow or return bumps the catalog
+ * version and records it as the version of that book. Books that have not
+ * changed since startup have version 0 and are not tracked. Every tag includes
+ * an epoch that changes on restart, so tags from an earlier process, which
+ * may have seen other data, never match. When too many books are tracked the
+ * epoch is rotated, which resets the tracking and invalidates every tag.
+ * <p>
+ * Read the tag <em>before</em> reading the data it describes. A change that
+ * commits in between then pairs new data with an old tag, which only costs the
+ * client one more full response; the reverse would pin it to stale data.
+ */
+@Component
+public class CatalogVersions {
+
+    static final int MAX_TRACKED_BOOKS = 100_000;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile Generation generation = new Generation(System.currentTimeMillis());
+
+    /**
+     * Epoch plus the versions of the books changed within it. Swapped as a whole
+     * so readers never pair one epoch with another epoch's versions.
+     */
+    private record Generation(long epoch, Map<Long, Long> bookVersions) {
+
+        Generation(long epoch) {
+            this(epoch, new ConcurrentHashMap<>());
+        }
+    }
+
+    public String catalogETag() {
+        Generation current = generation;
+        return tag(current.epoch(), catalogVersion.get());
+    }
+
+    public String bookETag(long bookId) {
+        Generation current = generation;
+        return tag(current.epoch(), current.bookVersions().getOrDefault(bookId, 0L));
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        bump(event.bookId());
+    }
+
+    @TransactionalEventListener
+    public void onCirculation(BookCirculationEvent event) {
+        bump(event.bookId());
+    }
+
+    void bump(long bookId) {
+        Generation current = generation;
+        if (current.bookVersions().size() >= MAX_TRACKED_BOOKS) {
+            synchronized (this) {
+                if (generation == current) {
+                    generation = new Generation(Math.max(current.epoch() + 1, System.currentTimeMillis()));
+                }
+                current = generation;
+            }
+        }
+        current.bookVersions().put(bookId, catalogVersion.incrementAndGet());
+    }
+
+    private static String tag(long epoch, long version) {
+        return "\"" + Long.toString(epoch, 36) + "." + version + "\"";
+    }
+}
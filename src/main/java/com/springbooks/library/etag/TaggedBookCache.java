@@ -0,0 +1,48 @@
+package com.springbooks.library.etag;
+
+import com.springbooks.library.config.CacheConfig;
+import com.springbooks.library.model.response.BookResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * The {@link CacheConfig#BOOKS} cache, with every entry stamped with the book's
+ * ETag as it was before the database read. An entry is a hit only while the
+ * book's tag still matches.
+ * <p>
+ * Evicting after commit is not enough on its own: a read that missed before a
+ * change committed can put its older value after the eviction, and the tag is
+ * bumped before {@code @CacheEvict} runs. Either way the stale entry carries an
+ * older tag than the book's current one, so it is reloaded instead of being
+ * served under the new tag.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaggedBookCache {
+
+    private final CacheManager cacheManager;
+    private final CatalogVersions catalogVersions;
+
+    private record Entry(String etag, BookResponse book) {
+    }
+
+    public BookResponse get(long bookId, Supplier<BookResponse> loader) {
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        if (books == null) {
+            return loader.get();
+        }
+        // Taken before the load; see CatalogVersions
+        String etag = catalogVersions.bookETag(bookId);
+        Entry cached = books.get(bookId, Entry.class);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached.book();
+        }
+        BookResponse book = loader.get();
+        books.put(bookId, new Entry(etag, book));
+        return book;
+    }
+}
@@ -0,0 +1,28 @@
+package com.springbooks.library.event;
+
+import com.springbooks.library.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached entry of every book whose circulation state changed, once
+ * the change has committed. Batch operations touch too many keys for
+ * {@code @CacheEvict}; single-book operations are evicted twice, which is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onCirculation(BookCirculationEvent event) {
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        if (books != null) {
+            books.evict(event.bookId());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.springbooks.library.event;
+
+/**
+ * Published by the book service whenever a book's catalog data is created,
+ * updated or deleted. Listeners that mirror the catalog should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public record BookChangedEvent(Long bookId, String title, String author, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BookChangedEvent created(Long bookId, String title, String author) {
+        return new BookChangedEvent(bookId, title, author, ChangeType.CREATED);
+    }
+
+    public static BookChangedEvent updated(Long bookId, String title, String author) {
+        return new BookChangedEvent(bookId, title, author, ChangeType.UPDATED);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(bookId, null, null, ChangeType.DELETED);
+    }
+}
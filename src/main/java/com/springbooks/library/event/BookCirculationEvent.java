@@ -0,0 +1,27 @@
+package com.springbooks.library.event;
+
+import java.time.Instant;
+
+/**
+ * Published by the book service when a copy of a book is borrowed or returned.
+ * {@code memberId} is the borrowing member, or null for returns;
+ * {@code availableCopies} is what is left on the shelf afterwards and
+ * {@code version} the book row's version once the change is applied, which
+ * lets listeners order events that reach them out of commit order.
+ * {@code loanId} is the loan opened or closed and {@code at} the borrow or
+ * return time written to it, so listeners can match events against loans
+ * they read from the database.
+ */
+public record BookCirculationEvent(Long bookId, boolean borrowed, Long memberId, int availableCopies, long version,
+                                   Long loanId, Instant at) {
+
+    public static BookCirculationEvent borrowed(Long bookId, Long memberId, int availableCopies, long version,
+                                                Long loanId, Instant borrowedAt) {
+        return new BookCirculationEvent(bookId, true, memberId, availableCopies, version, loanId, borrowedAt);
+    }
+
+    public static BookCirculationEvent returned(Long bookId, int availableCopies, long version,
+                                                Long loanId, Instant returnedAt) {
+        return new BookCirculationEvent(bookId, false, null, availableCopies, version, loanId, returnedAt);
+    }
+}
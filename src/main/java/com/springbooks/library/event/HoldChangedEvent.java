@@ -0,0 +1,26 @@
+package com.springbooks.library.event;
+
+/**
+ * Published when a hold is placed, cancelled or turned into a loan.
+ * {@code holdId} orders a book's queue.
+ */
+public record HoldChangedEvent(Long bookId, Long memberId, Long holdId, ChangeType type) {
+
+    public enum ChangeType {
+        PLACED,
+        CANCELLED,
+        PROMOTED
+    }
+
+    public static HoldChangedEvent placed(Long bookId, Long memberId, Long holdId) {
+        return new HoldChangedEvent(bookId, memberId, holdId, ChangeType.PLACED);
+    }
+
+    public static HoldChangedEvent cancelled(Long bookId, Long memberId) {
+        return new HoldChangedEvent(bookId, memberId, null, ChangeType.CANCELLED);
+    }
+
+    public static HoldChangedEvent promoted(Long bookId, Long memberId, Long holdId) {
+        return new HoldChangedEvent(bookId, memberId, holdId, ChangeType.PROMOTED);
+    }
+}
@@ -0,0 +1,10 @@
+package com.springbooks.library.event;
+
+import java.time.Instant;
+
+/**
+ * Published once per loan when the overdue sweeper finds it past its due date
+ * and still out.
+ */
+public record LoanOverdueEvent(Long loanId, Long bookId, Long memberId, Instant dueAt) {
+}
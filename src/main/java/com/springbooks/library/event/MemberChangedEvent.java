@@ -0,0 +1,20 @@
+package com.springbooks.library.event;
+
+/**
+ * Published by the member service whenever a member is registered or updated.
+ */
+public record MemberChangedEvent(Long memberId, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED
+    }
+
+    public static MemberChangedEvent created(Long memberId) {
+        return new MemberChangedEvent(memberId, ChangeType.CREATED);
+    }
+
+    public static MemberChangedEvent updated(Long memberId) {
+        return new MemberChangedEvent(memberId, ChangeType.UPDATED);
+    }
+}
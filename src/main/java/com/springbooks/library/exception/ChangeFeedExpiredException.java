@@ -0,0 +1,12 @@
+package com.springbooks.library.exception;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+
+    public ChangeFeedExpiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
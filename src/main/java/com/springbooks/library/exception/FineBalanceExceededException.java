@@ -0,0 +1,12 @@
+package com.springbooks.library.exception;
+
+public class FineBalanceExceededException extends RuntimeException {
+
+    public FineBalanceExceededException(String message) {
+        super(message);
+    }
+
+    public FineBalanceExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,9 +1,14 @@
 package com.springbooks.library.exception;
 
 import com.springbooks.library.model.response.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,6 +28,16 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /** Counter of handled exceptions, tagged with the exception's simple name and the response status. */
+    public static final String EXCEPTION_COUNTER = "library.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Test slices may run without a registry
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
     @ExceptionHandler(BookNotFoundException.class)
     public ResponseEntity<ApiResponse<Object>> handleBookNotFoundException(
             BookNotFoundException ex, WebRequest request) {
@@ -33,6 +48,7 @@ public class GlobalExceptionHandler {
             ex.getMessage()
         );
         
+        recordException(ex, HttpStatus.NOT_FOUND);
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
@@ -46,6 +62,21 @@ public class GlobalExceptionHandler {
             ex.getMessage()
         );
         
+        recordException(ex, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ApiResponse<Object>> handleHoldNotFoundException(
+            HoldNotFoundException ex, WebRequest request) {
+        log.error("Hold not found: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Hold not found", 
+            ex.getMessage()
+        );
+        
+        recordException(ex, HttpStatus.NOT_FOUND);
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
@@ -59,6 +90,21 @@ public class GlobalExceptionHandler {
             ex.getMessage()
         );
         
+        recordException(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(FineBalanceExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleFineBalanceExceededException(
+            FineBalanceExceededException ex, WebRequest request) {
+        log.error("Fine balance exceeded: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Fine balance exceeded", 
+            ex.getMessage()
+        );
+        
+        recordException(ex, HttpStatus.CONFLICT);
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
@@ -72,6 +118,21 @@ public class GlobalExceptionHandler {
             ex.getMessage()
         );
         
+        recordException(ex, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(SearchPageTooDeepException.class)
+    public ResponseEntity<ApiResponse<Object>> handleSearchPageTooDeepException(
+            SearchPageTooDeepException ex, WebRequest request) {
+        log.error("Search page too deep: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Search page too deep", 
+            ex.getMessage()
+        );
+        
+        recordException(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
@@ -85,9 +146,72 @@ public class GlobalExceptionHandler {
             ex.getMessage()
         );
         
+        recordException(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        log.error("Concurrent modification: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Concurrent modification", 
+            "The resource was modified by another request, please retry"
+        );
+        
+        recordException(ex, HttpStatus.CONFLICT);
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceOverloadedException(
+            ServiceOverloadedException ex, WebRequest request) {
+        log.error("Service overloaded: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Service overloaded", 
+            ex.getMessage()
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        
+        recordException(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(response, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleRateLimitExceededException(
+            RateLimitExceededException ex, WebRequest request) {
+        log.warn("Rate limit exceeded: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Rate limit exceeded", 
+            ex.getMessage()
+        );
+        HttpHeaders headers = new HttpHeaders();
+        // Whole seconds, rounded up
+        long retryAfterMillis = ex.getRetryAfter().toMillis();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+        
+        recordException(ex, HttpStatus.TOO_MANY_REQUESTS);
+        return new ResponseEntity<>(response, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(ChangeFeedExpiredException.class)
+    public ResponseEntity<ApiResponse<Object>> handleChangeFeedExpiredException(
+            ChangeFeedExpiredException ex, WebRequest request) {
+        log.error("Change feed cursor expired: {}", ex.getMessage());
+        
+        ApiResponse<Object> response = ApiResponse.error(
+            "Change feed cursor expired", 
+            ex.getMessage()
+        );
+        
+        recordException(ex, HttpStatus.GONE);
+        return new ResponseEntity<>(response, HttpStatus.GONE);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
@@ -105,6 +229,7 @@ public class GlobalExceptionHandler {
             errors.toString()
         );
         
+        recordException(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
@@ -118,6 +243,7 @@ public class GlobalExceptionHandler {
             "You don't have permission to access this resource"
         );
         
+        recordException(ex, HttpStatus.FORBIDDEN);
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
 
@@ -131,6 +257,14 @@ public class GlobalExceptionHandler {
             "An unexpected error occurred"
         );
         
+        recordException(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private void recordException(Exception ex, HttpStatus status) {
+        meterRegistry.counter(EXCEPTION_COUNTER,
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value()))
+            .increment();
+    }
 }
@@ -0,0 +1,12 @@
+package com.springbooks.library.exception;
+
+public class SearchPageTooDeepException extends RuntimeException {
+
+    public SearchPageTooDeepException(String message) {
+        super(message);
+    }
+
+    public SearchPageTooDeepException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
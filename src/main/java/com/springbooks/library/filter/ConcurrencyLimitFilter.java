@@ -0,0 +1,63 @@
+package com.springbooks.library.filter;
+
+import com.springbooks.library.exception.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most a fixed number of requests through at a time. Waiting requests
+ * queue fairly; those that cannot get a slot within the timeout are rejected
+ * through the {@link HandlerExceptionResolver} so they get the same error body
+ * as controller failures.
+ * <p>
+ * The slot is released when the request thread leaves the filter, so streaming
+ * responses that complete asynchronously are only counted while they start.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout,
+                                  HandlerExceptionResolver exceptionResolver) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.timeoutNanos = acquireTimeout.toNanos();
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceOverloadedException("Too many concurrent requests, please retry"));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,71 @@
+package com.springbooks.library.filter;
+
+import com.springbooks.library.exception.RateLimitExceededException;
+import com.springbooks.library.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Applies the {@link RateLimiter} to each request, keyed by the JWT subject or,
+ * for requests without a token, the client address. Subjects are only trusted
+ * when token signatures are verified; otherwise every request is keyed by
+ * address, since unverified subjects are whatever the client sends. Requests
+ * are matched on the decoded, normalized path, the same one request mappings
+ * see, so encoding a path cannot move it to another group. Runs in the security
+ * filter chain after bearer token authentication. Allowed requests get
+ * {@code X-RateLimit-Limit} and {@code X-RateLimit-Remaining} headers; the
+ * others are rejected through the {@link HandlerExceptionResolver} so they get
+ * the same error body as controller failures.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean trustSubjects;
+
+    public RateLimitFilter(RateLimiter rateLimiter, HandlerExceptionResolver exceptionResolver, boolean trustSubjects) {
+        this.rateLimiter = rateLimiter;
+        this.exceptionResolver = exceptionResolver;
+        this.trustSubjects = trustSubjects;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(request.getMethod(),
+                UrlPathHelper.defaultInstance.getPathWithinApplication(request), clientOf(request));
+        if (decision != null) {
+            if (!decision.allowed()) {
+                exceptionResolver.resolveException(request, response, null, new RateLimitExceededException(
+                        "Rate limit for " + decision.group() + " requests exceeded, please retry later",
+                        decision.retryAfter()));
+                return;
+            }
+            response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+            response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Prefixed so a subject can never share a bucket with an address
+    private String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (trustSubjects && authentication instanceof JwtAuthenticationToken token) {
+            return "sub:" + token.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
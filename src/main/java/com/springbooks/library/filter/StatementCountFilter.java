@@ -0,0 +1,50 @@
+package com.springbooks.library.filter;
+
+import com.springbooks.library.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, as the
+ * {@code library.http.db.statements} distribution tagged with the request's
+ * URI template and method. Statements run by asynchronous streaming responses
+ * after the request thread returns are not counted.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "library.http.db.statements";
+
+    private final StatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountFilter(StatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements issued per request")
+                    .baseUnit("statements")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .tag("method", request.getMethod())
+                    .register(meterRegistry)
+                    .record(counter.get());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.springbooks.library.fines;
+
+import com.springbooks.library.config.FinesProperties;
+import com.springbooks.library.model.entity.FineSettlement;
+import com.springbooks.library.repository.FineSettlementRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.FineService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly fine settlement.
+ * <p>
+ * Each fine day is settled in chunks of {@code library.fines.chunk-size}
+ * member IDs, {@code library.fines.parallelism} at a time. A chunk is two
+ * set-based updates in its own transaction (see
+ * {@link FineService#settleChunk}) and charges a loan at most once per day, so
+ * after a crash or a failed chunk the day is simply settled again. A day is
+ * recorded in {@code fine_settlements} once all its chunks have committed; the
+ * next run carries on with the day after the latest recorded one, catching up
+ * on nights the application was down. The first run settles the current day only.
+ */
+@Component
+@Slf4j
+public class FineSettlementJob {
+
+    /** Counter of daily loan charges made. */
+    public static final String CHARGES_COUNTER = "library.fines.charges";
+
+    private final FineService fineService;
+    private final MemberRepository memberRepository;
+    private final FineSettlementRepository settlementRepository;
+    private final FinesProperties properties;
+    private final Counter charges;
+
+    public FineSettlementJob(FineService fineService, MemberRepository memberRepository,
+                             FineSettlementRepository settlementRepository, FinesProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.fineService = fineService;
+        this.memberRepository = memberRepository;
+        this.settlementRepository = settlementRepository;
+        this.properties = properties;
+        this.charges = meterRegistry.counter(CHARGES_COUNTER);
+    }
+
+    @Scheduled(cron = "${library.fines.cron:0 30 0 * * *}", zone = "${library.fines.zone:UTC}")
+    public void settle() {
+        settle(LocalDate.now(properties.getZone()));
+    }
+
+    /**
+     * Settles every unsettled day up to {@code through}, stopping at the first
+     * day that fails.
+     *
+     * @return how many loans were charged
+     */
+    synchronized long settle(LocalDate through) {
+        LocalDate from = settlementRepository.findLatestFineDate()
+                .map(latest -> latest.plusDays(1))
+                .orElse(through);
+        long total = 0;
+        for (LocalDate day = from; !day.isAfter(through); day = day.plusDays(1)) {
+            long started = System.nanoTime();
+            long fined;
+            try {
+                fined = settleDay(day);
+            } catch (RuntimeException e) {
+                log.error("Fine settlement of {} failed, retrying on the next run", day, e);
+                break;
+            }
+            settlementRepository.save(new FineSettlement(day, Instant.now(), fined));
+            charges.increment(fined);
+            total += fined;
+            log.info("Settled fines for {}: {} loans charged in {} ms", day, fined, (System.nanoTime() - started) / 1_000_000);
+        }
+        return total;
+    }
+
+    private long settleDay(LocalDate day) {
+        MemberRepository.IdRange range = memberRepository.findIdRange();
+        if (range.getMinId() == null) {
+            return 0;
+        }
+        
+        int chunkSize = properties.getChunkSize();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "fine-settlement-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = range.getMinId(); from <= range.getMaxId(); from += chunkSize) {
+                long chunkFrom = from;
+                chunks.add(executor.submit(() -> fineService.settleChunk(day, chunkFrom, chunkFrom + chunkSize)));
+            }
+            // Let every chunk finish so the ones that committed need no work when the day is retried
+            long fined = 0;
+            RuntimeException failure = null;
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    fined += chunk.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IllegalStateException("Fine settlement chunk failed", e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while settling fines", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return fined;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.springbooks.library.holds;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory hold queues, one per book with waiting members.
+ * <p>
+ * Each queue is an immutable snapshot of the waiting members in hold ID order
+ * together with every member's position, so looking up a position is two hash
+ * lookups and takes no lock. Changes copy the queue inside
+ * {@link ConcurrentHashMap#compute}, which serializes them per book only.
+ * Queues are short and change far less often than members poll their
+ * position, so the copying is cheap.
+ */
+public class HoldQueueIndex {
+
+    private record Queue(long[] holdIds, long[] memberIds, Map<Long, Integer> positions) {
+
+        static Queue of(long[] holdIds, long[] memberIds) {
+            Map<Long, Integer> positions = new HashMap<>(memberIds.length * 2);
+            for (int i = 0; i < memberIds.length; i++) {
+                positions.put(memberIds[i], i + 1);
+            }
+            return new Queue(holdIds, memberIds, positions);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Queue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a hold in ID order; a member already queued for the book is moved to the new hold.
+     */
+    public void add(long bookId, long holdId, long memberId) {
+        queues.compute(bookId, (id, queue) -> {
+            if (queue == null) {
+                return Queue.of(new long[] {holdId}, new long[] {memberId});
+            }
+            Queue base = queue.positions.containsKey(memberId) ? without(queue, memberId) : queue;
+            if (base == null) {
+                return Queue.of(new long[] {holdId}, new long[] {memberId});
+            }
+            int n = base.holdIds.length;
+            int at = Arrays.binarySearch(base.holdIds, holdId);
+            at = at < 0 ? -at - 1 : at;
+            long[] holdIds = new long[n + 1];
+            long[] memberIds = new long[n + 1];
+            System.arraycopy(base.holdIds, 0, holdIds, 0, at);
+            System.arraycopy(base.memberIds, 0, memberIds, 0, at);
+            holdIds[at] = holdId;
+            memberIds[at] = memberId;
+            System.arraycopy(base.holdIds, at, holdIds, at + 1, n - at);
+            System.arraycopy(base.memberIds, at, memberIds, at + 1, n - at);
+            return Queue.of(holdIds, memberIds);
+        });
+    }
+
+    public void remove(long bookId, long memberId) {
+        queues.computeIfPresent(bookId, (id, queue) -> without(queue, memberId));
+    }
+
+    public void removeBook(long bookId) {
+        queues.remove(bookId);
+    }
+
+    /**
+     * Position of {@code memberId} in the book's queue, starting at 1, or 0 if not queued.
+     */
+    public int position(long bookId, long memberId) {
+        Queue queue = queues.get(bookId);
+        if (queue == null) {
+            return 0;
+        }
+        Integer position = queue.positions.get(memberId);
+        return position == null ? 0 : position;
+    }
+
+    public int length(long bookId) {
+        Queue queue = queues.get(bookId);
+        return queue == null ? 0 : queue.memberIds.length;
+    }
+
+    public int queuedBookCount() {
+        return queues.size();
+    }
+
+    // Null when the queue becomes empty, which removes it from the map
+    private static Queue without(Queue queue, long memberId) {
+        Integer position = queue.positions.get(memberId);
+        if (position == null) {
+            return queue;
+        }
+        int n = queue.memberIds.length;
+        if (n == 1) {
+            return null;
+        }
+        int at = position - 1;
+        long[] holdIds = new long[n - 1];
+        long[] memberIds = new long[n - 1];
+        System.arraycopy(queue.holdIds, 0, holdIds, 0, at);
+        System.arraycopy(queue.memberIds, 0, memberIds, 0, at);
+        System.arraycopy(queue.holdIds, at + 1, holdIds, at, n - at - 1);
+        System.arraycopy(queue.memberIds, at + 1, memberIds, at, n - at - 1);
+        return Queue.of(holdIds, memberIds);
+    }
+}
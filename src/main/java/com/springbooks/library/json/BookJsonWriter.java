@@ -0,0 +1,266 @@
+package com.springbooks.library.json;
+
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.response.CursorPage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes {@link Book} rows as JSON straight from the entity, byte for byte what
+ * Jackson produces for the matching {@code BookResponse} (and the
+ * {@code ApiResponse}/{@code CursorPage} envelope around a page of them).
+ * <p>
+ * Field names and punctuation are pre-encoded, strings are escaped and UTF-8
+ * encoded in place, and numbers are formatted without going through
+ * {@code String}, so writing a row allocates nothing. Output is collected in
+ * a buffer that is handed to the stream when full; {@link #close()} returns it
+ * to a small pool for the next response. Instances are not thread-safe; use
+ * one per response.
+ */
+public class BookJsonWriter implements Closeable {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final int POOLED_BUFFERS = 64;
+
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    // Longest single write: a \\uXXXX escape or a 20-character long
+    private static final int MAX_TOKEN = 20;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] TITLE = ascii(",\"title\":");
+    private static final byte[] AUTHOR = ascii(",\"author\":");
+    private static final byte[] ISBN = ascii(",\"isbn\":");
+    private static final byte[] IS_BORROWED = ascii(",\"isBorrowed\":");
+    private static final byte[] TOTAL_COPIES = ascii(",\"totalCopies\":");
+    private static final byte[] AVAILABLE_COPIES = ascii(",\"availableCopies\":");
+    private static final byte[] PAGE_START = ascii("{\"success\":true,\"message\":");
+    private static final byte[] CONTENT = ascii(",\"data\":{\"content\":[");
+    private static final byte[] SIZE = ascii("],\"size\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+    private static final byte[] HAS_NEXT = ascii(",\"hasNext\":");
+    private static final byte[] PAGE_END = ascii("},\"error\":null}");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] MIN_LONG = ascii(Long.toString(Long.MIN_VALUE));
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private final OutputStream outputStream;
+    private byte[] buffer;
+    private int position;
+
+    public BookJsonWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        byte[] pooled = BUFFER_POOL.poll();
+        this.buffer = pooled != null ? pooled : new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Writes a successful {@code ApiResponse} wrapping {@code page}.
+     */
+    public void writePage(CursorPage<Book> page, String message) throws IOException {
+        write(PAGE_START);
+        writeString(message);
+        write(CONTENT);
+        List<Book> books = page.getContent();
+        for (int i = 0; i < books.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeBook(books.get(i));
+        }
+        write(SIZE);
+        writeLong(page.getSize());
+        write(NEXT_CURSOR);
+        writeLong(page.getNextCursor());
+        write(HAS_NEXT);
+        write(page.isHasNext() ? TRUE : FALSE);
+        write(PAGE_END);
+    }
+
+    /**
+     * Writes one book followed by a newline, as a line of application/x-ndjson.
+     */
+    public void writeLine(Book book) throws IOException {
+        writeBook(book);
+        writeByte('\n');
+    }
+
+    public void writeBook(Book book) throws IOException {
+        write(ID);
+        writeLong(book.getId());
+        write(TITLE);
+        writeString(book.getTitle());
+        write(AUTHOR);
+        writeString(book.getAuthor());
+        write(ISBN);
+        writeString(book.getIsbn());
+        write(IS_BORROWED);
+        Boolean borrowed = book.getIsBorrowed();
+        write(borrowed == null ? NULL : borrowed ? TRUE : FALSE);
+        write(TOTAL_COPIES);
+        writeInteger(book.getTotalCopies());
+        write(AVAILABLE_COPIES);
+        writeInteger(book.getAvailableCopies());
+        writeByte('}');
+    }
+
+    /**
+     * Hands the buffered bytes to the stream and flushes it.
+     */
+    public void flush() throws IOException {
+        drain();
+        outputStream.flush();
+    }
+
+    /**
+     * Flushes and returns the buffer to the pool; the stream is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            BUFFER_POOL.offer(buffer);
+            buffer = null;
+        }
+    }
+
+    private void writeLong(Long value) throws IOException {
+        if (value == null) {
+            write(NULL);
+        } else {
+            writeLong(value.longValue());
+        }
+    }
+
+    private void writeInteger(Integer value) throws IOException {
+        if (value == null) {
+            write(NULL);
+        } else {
+            writeLong(value.longValue());
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        ensure(MAX_TOKEN);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Writes a quoted string with the escapes Jackson uses: the short forms for
+     * {@code \b \f \n \r \t}, {@code \\uXXXX} for other control characters, and
+     * everything else, including non-ASCII, as UTF-8.
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            ensure(MAX_TOKEN);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[position++] = '\\';
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xf0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate; replaced like String.getBytes does
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xf];
+            }
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char c) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
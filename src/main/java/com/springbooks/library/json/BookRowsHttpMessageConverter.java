@@ -0,0 +1,44 @@
+package com.springbooks.library.json;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link BookRowsPage} responses straight to the response body. Spring
+ * Boot registers converter beans ahead of Jackson, so this one wins for its type.
+ */
+@Component
+public class BookRowsHttpMessageConverter extends AbstractHttpMessageConverter<BookRowsPage> {
+
+    public BookRowsHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BookRowsPage.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected BookRowsPage readInternal(Class<? extends BookRowsPage> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("BookRowsPage is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(BookRowsPage rows, HttpOutputMessage outputMessage) throws IOException {
+        try (BookJsonWriter writer = new BookJsonWriter(outputMessage.getBody())) {
+            writer.writePage(rows.page(), rows.message());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.springbooks.library.json;
+
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.response.CursorPage;
+
+/**
+ * A successful page of books that {@link BookRowsHttpMessageConverter} writes
+ * with {@link BookJsonWriter}, in the same shape as
+ * {@code ApiResponse<CursorPage<BookResponse>>}.
+ */
+public record BookRowsPage(CursorPage<Book> page, String message) {
+}
@@ -0,0 +1,53 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One committed borrow, return or catalog and membership change, kept for
+ * auditing. Rows are inserted in batches by {@code AuditTrail} and never
+ * updated.
+ */
+@Entity
+@Table(name = "audit_log")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+
+    public enum Action {
+        BOOK_CREATED,
+        BOOK_UPDATED,
+        BOOK_DELETED,
+        BOOK_BORROWED,
+        BOOK_RETURNED,
+        LOAN_OVERDUE,
+        MEMBER_CREATED,
+        MEMBER_UPDATED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Action action;
+
+    /** The book, or the member for member actions. */
+    @Column(nullable = false)
+    private Long entityId;
+
+    /** The borrowing member of a borrow or overdue loan. */
+    private Long memberId;
+
+    /** Subject of the JWT the change was made with. */
+    private String principal;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
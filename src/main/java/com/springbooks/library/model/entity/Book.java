@@ -5,15 +5,27 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * A title in the catalog. Its physical copies are {@link BookCopy} rows;
+ * {@code availableCopies} counts the ones on the shelf so availability is read
+ * without touching them, and {@code isBorrowed} is set while none are.
+ */
 @Entity
-@Table(name = "books")
+@Table(name = "books",
+    uniqueConstraints = @UniqueConstraint(name = "uk_books_isbn", columnNames = "isbn"),
+    indexes = {
+        // Available/borrowed books in id order
+        @Index(name = "idx_books_is_borrowed", columnList = "is_borrowed, id")
+    })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
 
+    // Pooled sequence IDs (unlike IDENTITY) let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -22,9 +34,19 @@ public class Book {
     @Column(nullable = false)
     private String author;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String isbn;
 
     @Column(nullable = false)
     private Boolean isBorrowed = false;
+
+    @Column(nullable = false)
+    private Integer totalCopies = 1;
+
+    @Column(nullable = false)
+    private Integer availableCopies = 1;
+
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
 }
@@ -0,0 +1,44 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One physical copy of a title. Loans are made against copies; the title's
+ * counters in {@link Book} always match the statuses of its copies.
+ */
+@Entity
+@Table(name = "book_copies", indexes = {
+    // Free copies of a title in ID order
+    @Index(name = "idx_book_copies_free", columnList = "book_id, status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCopy {
+
+    public enum Status {
+        AVAILABLE,
+        BORROWED
+    }
+
+    // Pooled sequence IDs, so copies created with a bulk import are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_copies_seq")
+    @SequenceGenerator(name = "book_copies_seq", sequenceName = "book_copies_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Book book;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.AVAILABLE;
+}
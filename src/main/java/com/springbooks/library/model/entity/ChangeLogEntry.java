@@ -0,0 +1,55 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One committed change to a book or member. Sequence numbers are assigned in
+ * commit order (see {@link ChangeLogHead}), so a consumer that has seen every
+ * entry up to {@code seq} never misses one that commits later.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+    // Latest entry per entity, used by compaction
+    @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id, seq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+
+    public enum EntityType {
+        BOOK,
+        MEMBER
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BORROWED,
+        RETURNED
+    }
+
+    // Assigned from ChangeLogHead just before commit
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType changeType;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
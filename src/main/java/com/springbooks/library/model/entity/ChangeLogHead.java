@@ -0,0 +1,31 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row holding the last assigned change sequence number. Writers
+ * advance it just before commit, which row-locks it until the commit
+ * completes, so sequence numbers become visible in order.
+ */
+@Entity
+@Table(name = "change_log_head")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogHead {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    /** Entries up to here may have been purged; older cursors must resync. */
+    @Column(nullable = false)
+    private Long purgedThrough;
+}
@@ -0,0 +1,31 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A fine day the nightly settlement has finished. The next run carries on
+ * with the day after the latest one.
+ */
+@Entity
+@Table(name = "fine_settlements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FineSettlement {
+
+    @Id
+    private LocalDate fineDate;
+
+    @Column(nullable = false)
+    private Instant settledAt;
+
+    /** Loans charged for the day. */
+    @Column(nullable = false)
+    private long loansFined;
+}
@@ -0,0 +1,46 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * A member waiting for a borrowed book. Holds on a book are served in ID
+ * order; the first one is turned into a loan when the book is returned.
+ */
+@Entity
+@Table(name = "holds", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_holds_book_member", columnNames = {"book_id", "member_id"})
+}, indexes = {
+    // Queue of a book in arrival order
+    @Index(name = "idx_holds_book_queue", columnList = "book_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Member member;
+
+    @Column(nullable = false)
+    private Instant placedAt;
+}
@@ -0,0 +1,78 @@
+package com.springbooks.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One borrowing of a copy of a book by a member. A loan is active while {@code returnedAt} is null
+ * and overdue once {@code dueAt} has passed; overdue loans are charged fines by the nightly settlement.
+ */
+@Entity
+@Table(name = "loans", indexes = {
+    // Active loans of a member: equality on member_id, "returned_at is null", newest first
+    @Index(name = "idx_loans_member_active", columnList = "member_id, returned_at, borrowed_at, book_id, due_at"),
+    // Loan history of a book, keyset-paginated on id
+    @Index(name = "idx_loans_book_history", columnList = "book_id, id"),
+    // Active loans of a title, oldest first, for returns by title
+    @Index(name = "idx_loans_book_active", columnList = "book_id, returned_at, id"),
+    // Active loans in due order, for the overdue sweeper and the overdue listing
+    @Index(name = "idx_loans_due", columnList = "returned_at, due_at, id"),
+    // Loans in borrow order, for rebuilding the circulation rollups
+    @Index(name = "idx_loans_borrowed", columnList = "borrowed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Loan {
+
+    public static final Duration DEFAULT_LOAN_PERIOD = Duration.ofDays(14);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "copy_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BookCopy copy;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Member member;
+
+    @Column(nullable = false)
+    private Instant borrowedAt;
+
+    @Column(nullable = false)
+    private Instant dueAt;
+
+    private Instant returnedAt;
+
+    /** When the overdue sweeper found the loan past due and still out; null until then. */
+    private Instant overdueAt;
+
+    /** Fines charged for the loan so far, capped at {@code library.fines.max-per-loan}. */
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal fineAmount = BigDecimal.ZERO;
+
+    /** Last fine day the loan was charged for; null until its first charge. */
+    private LocalDate finedThrough;
+}
@@ -5,20 +5,32 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Entity
-@Table(name = "members")
+@Table(name = "members", uniqueConstraints = @UniqueConstraint(name = "uk_members_email", columnNames = "email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Member {
 
+    // Pooled sequence IDs (unlike IDENTITY) let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "members_seq")
+    @SequenceGenerator(name = "members_seq", sequenceName = "members_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
+
+    /**
+     * Unpaid fines. Kept up to date by the fine settlement and payments with
+     * set-based updates, never by saving the entity, so member updates cannot
+     * overwrite it.
+     */
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal fineBalance = BigDecimal.ZERO;
 }
@@ -18,6 +18,9 @@ public class BookMapper {
         book.setAuthor(request.getAuthor());
         book.setIsbn(request.getIsbn());
         book.setIsBorrowed(false);
+        int copies = request.getCopies() == null ? 1 : request.getCopies();
+        book.setTotalCopies(copies);
+        book.setAvailableCopies(copies);
         
         return book;
     }
@@ -32,7 +35,9 @@ public class BookMapper {
             book.getTitle(),
             book.getAuthor(),
             book.getIsbn(),
-            book.getIsBorrowed()
+            book.getIsBorrowed(),
+            book.getTotalCopies(),
+            book.getAvailableCopies()
         );
     }
 
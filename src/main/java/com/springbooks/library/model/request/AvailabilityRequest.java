@@ -0,0 +1,19 @@
+package com.springbooks.library.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRequest {
+
+    @NotEmpty(message = "Book IDs are required")
+    @Size(max = 10000, message = "At most 10000 book IDs can be checked at once")
+    private List<Long> bookIds;
+}
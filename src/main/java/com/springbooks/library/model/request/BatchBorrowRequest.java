@@ -0,0 +1,25 @@
+package com.springbooks.library.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBorrowRequest {
+
+    @NotNull(message = "Member ID is required")
+    private Long memberId;
+
+    @NotEmpty(message = "Book IDs are required")
+    @Size(max = 100, message = "At most 100 books can be borrowed at once")
+    private List<@NotNull Long> bookIds;
+
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+}
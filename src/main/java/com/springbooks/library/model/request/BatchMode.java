@@ -0,0 +1,11 @@
+package com.springbooks.library.model.request;
+
+/**
+ * How a batch circulation request treats books that cannot be processed.
+ */
+public enum BatchMode {
+    /** Process nothing unless every book can be processed. */
+    ALL_OR_NOTHING,
+    /** Process the books that can be, and report the rest. */
+    PARTIAL
+}
@@ -1,5 +1,7 @@
 package com.springbooks.library.model.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -22,4 +24,9 @@ public class BookRequest {
     @NotBlank(message = "ISBN is required")
     @Size(max = 20, message = "ISBN must not exceed 20 characters")
     private String isbn;
+
+    /** Copies to shelve when the title is created, 1 if omitted; ignored on update. */
+    @Min(value = 1, message = "Copies must be at least 1")
+    @Max(value = 1000, message = "Copies must not exceed 1000")
+    private Integer copies;
 }
@@ -29,6 +29,10 @@ public class ApiResponse<T> {
         return new ApiResponse<>(false, message, null, error);
     }
 
+    public static <T> ApiResponse<T> failure(T data, String message) {
+        return new ApiResponse<>(false, message, data, null);
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<>(false, message, null, null);
     }
@@ -0,0 +1,23 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch availability check, with the requested book IDs split by state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+
+    private List<Long> available = new ArrayList<>();
+
+    private List<Long> borrowed = new ArrayList<>();
+
+    private List<Long> unknown = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package com.springbooks.library.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.springbooks.library.model.request.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-book outcomes of a batch borrow or return, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCirculationResponse {
+
+    private BatchMode mode;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<CirculationResult> results;
+
+    public static BatchCirculationResponse of(BatchMode mode, List<CirculationResult> results) {
+        int succeeded = (int) results.stream().filter(CirculationResult::isSucceeded).count();
+        return new BatchCirculationResponse(mode, succeeded, results.size() - succeeded, results);
+    }
+
+    /**
+     * True when an all-or-nothing batch was rejected, so nothing was processed.
+     */
+    @JsonIgnore
+    public boolean isRejected() {
+        return mode == BatchMode.ALL_OR_NOTHING && failed > 0;
+    }
+}
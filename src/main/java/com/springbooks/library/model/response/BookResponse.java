@@ -18,4 +18,8 @@ public class BookResponse {
     private String isbn;
 
     private Boolean isBorrowed;
+
+    private Integer totalCopies;
+
+    private Integer availableCopies;
 }
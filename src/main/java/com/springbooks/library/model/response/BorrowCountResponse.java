@@ -0,0 +1,19 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Borrows of one book, or by one member, over an analytics window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowCountResponse {
+
+    /** Book or member ID. */
+    private Long id;
+
+    private long borrows;
+}
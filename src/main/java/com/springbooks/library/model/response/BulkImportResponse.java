@@ -0,0 +1,32 @@
+package com.springbooks.library.model.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkImportResponse {
+
+    private long total;
+
+    private long created;
+
+    private long duplicates;
+
+    private long invalid;
+
+    private List<BulkItemResult> results = new ArrayList<>();
+
+    public void add(BulkItemResult result) {
+        results.add(result);
+        total++;
+        switch (result.getStatus()) {
+            case CREATED -> created++;
+            case DUPLICATE -> duplicates++;
+            case INVALID -> invalid++;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single record in a bulk import. {@code index} is the record's
+ * zero-based position in the submitted feed and {@code key} its natural key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    private long index;
+
+    private String key;
+
+    private Status status;
+
+    private Long id;
+
+    private String error;
+
+    public static BulkItemResult created(long index, String key, Long id) {
+        return new BulkItemResult(index, key, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResult duplicate(long index, String key, String error) {
+        return new BulkItemResult(index, key, Status.DUPLICATE, null, error);
+    }
+
+    public static BulkItemResult invalid(long index, String key, String error) {
+        return new BulkItemResult(index, key, Status.INVALID, null, error);
+    }
+}
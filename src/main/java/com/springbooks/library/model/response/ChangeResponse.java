@@ -0,0 +1,31 @@
+package com.springbooks.library.model.response;
+
+import com.springbooks.library.model.entity.ChangeLogEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A change feed entry with the entity's current state: a {@link BookResponse}
+ * or {@link MemberResponse}, or null once the entity has been deleted. The
+ * state may already include later changes, so consumers should upsert it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeResponse {
+
+    private Long seq;
+
+    private ChangeLogEntry.EntityType entityType;
+
+    private Long entityId;
+
+    private ChangeLogEntry.ChangeType changeType;
+
+    private Instant changedAt;
+
+    private Object data;
+}
@@ -0,0 +1,37 @@
+package com.springbooks.library.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome for one book of a batch borrow or return.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CirculationResult {
+
+    public enum Status {
+        BORROWED,
+        RETURNED,
+        NOT_FOUND,
+        ALREADY_BORROWED,
+        NOT_BORROWED,
+        DUPLICATE,
+        /** Could have been processed, but the all-or-nothing batch was rejected. */
+        SKIPPED
+    }
+
+    private Long bookId;
+
+    private Status status;
+
+    private String error;
+
+    @JsonIgnore
+    public boolean isSucceeded() {
+        return status == Status.BORROWED || status == Status.RETURNED;
+    }
+}
@@ -0,0 +1,51 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of a keyset-paginated listing. Clients pass {@code nextCursor}
+ * back as the {@code cursor} request parameter to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+
+    public static final int MAX_SIZE = 500;
+
+    private List<T> content;
+
+    private int size;
+
+    private Long nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Clamps a client supplied page size into {@code [1, MAX_SIZE]}.
+     */
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Builds a page from a result that was fetched with {@code size + 1} rows;
+     * the extra row only signals that another page exists and is dropped.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> keyExtractor) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        Long nextCursor = hasNext ? keyExtractor.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, content.size(), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,20 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FineBalanceResponse {
+
+    private Long memberId;
+
+    private BigDecimal balance;
+
+    /** True while the balance is over {@code library.fines.borrow-limit}. */
+    private boolean borrowingBlocked;
+}
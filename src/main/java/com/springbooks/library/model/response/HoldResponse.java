@@ -0,0 +1,20 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponse {
+
+    private Long bookId;
+
+    private Long memberId;
+
+    /** 1 for the member who gets the book on its next return. */
+    private int position;
+
+    private int queueLength;
+}
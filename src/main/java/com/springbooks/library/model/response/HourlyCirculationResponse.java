@@ -0,0 +1,20 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyCirculationResponse {
+
+    /** Start of the hour, UTC. */
+    private Instant hour;
+
+    private long borrows;
+
+    private long returns;
+}
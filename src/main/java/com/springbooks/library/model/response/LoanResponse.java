@@ -0,0 +1,27 @@
+package com.springbooks.library.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanResponse {
+
+    private Long id;
+
+    private Long bookId;
+
+    private Long copyId;
+
+    private Long memberId;
+
+    private Instant borrowedAt;
+
+    private Instant dueAt;
+
+    private Instant returnedAt;
+}
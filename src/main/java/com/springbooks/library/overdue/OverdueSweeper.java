@@ -0,0 +1,119 @@
+package com.springbooks.library.overdue;
+
+import com.springbooks.library.config.OverdueProperties;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.service.LoanService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Flags loans as overdue as their due dates pass.
+ * <p>
+ * Active loans falling due within the next {@code library.overdue.lookahead}
+ * are held in a min-heap on due date. Each sweep tops the heap up from
+ * {@code idx_loans_due}, continuing a keyset cursor from the last loan loaded,
+ * then pops the loans whose due date has passed and hands them to
+ * {@link LoanService#markOverdue}. The work per sweep is proportional to the
+ * loans coming due, not to all active loans. Loans returned while queued are
+ * skipped when flagged. The first sweep after startup also picks up loans
+ * that fell due while the application was down.
+ */
+@Component
+@Slf4j
+public class OverdueSweeper {
+
+    /** Counter of loans flagged overdue. */
+    public static final String FLAGGED_COUNTER = "library.overdue.flagged";
+
+    /** Gauge of loans waiting in the queue. */
+    public static final String QUEUED_GAUGE = "library.overdue.queued";
+
+    private record DueEntry(Instant dueAt, long loanId) {
+    }
+
+    private final LoanRepository loanRepository;
+    private final LoanService loanService;
+    private final OverdueProperties properties;
+    private final Counter flagged;
+    private final PriorityQueue<DueEntry> queue = new PriorityQueue<>(
+            Comparator.comparing(DueEntry::dueAt).thenComparingLong(DueEntry::loanId));
+
+    // Keyset position of the last loan loaded into the queue
+    private Instant loadedDueAt = Instant.EPOCH;
+    private long loadedId;
+
+    public OverdueSweeper(LoanRepository loanRepository, LoanService loanService,
+                          OverdueProperties properties, MeterRegistry meterRegistry) {
+        this.loanRepository = loanRepository;
+        this.loanService = loanService;
+        this.properties = properties;
+        this.flagged = meterRegistry.counter(FLAGGED_COUNTER);
+        Gauge.builder(QUEUED_GAUGE, this, OverdueSweeper::queued).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.overdue.sweep-interval:PT1M}")
+    public void sweep() {
+        sweep(Instant.now());
+    }
+
+    /**
+     * Flags the loans due by {@code now}.
+     *
+     * @return how many loans were flagged
+     */
+    synchronized int sweep(Instant now) {
+        load(now.plus(properties.getLookahead()));
+        
+        List<DueEntry> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+            due.add(queue.poll());
+        }
+        
+        int count = 0;
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            List<DueEntry> batch = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+            try {
+                count += loanService.markOverdue(batch.stream().map(DueEntry::loanId).toList(), now);
+            } catch (RuntimeException e) {
+                // Requeue the rest; they are retried on the next sweep
+                log.warn("Flagging overdue loans failed, retrying on the next sweep", e);
+                queue.addAll(due.subList(from, due.size()));
+                break;
+            }
+        }
+        
+        if (count > 0) {
+            flagged.increment(count);
+            log.info("Flagged {} loans as overdue", count);
+        }
+        return count;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    private void load(Instant until) {
+        int batchSize = properties.getBatchSize();
+        List<LoanRepository.DueLoan> page;
+        do {
+            page = loanRepository.findComingDue(loadedDueAt, loadedId, until, Limit.of(batchSize));
+            for (LoanRepository.DueLoan loan : page) {
+                queue.add(new DueEntry(loan.getDueAt(), loan.getId()));
+                loadedDueAt = loan.getDueAt();
+                loadedId = loan.getId();
+            }
+        } while (page.size() == batchSize);
+    }
+}
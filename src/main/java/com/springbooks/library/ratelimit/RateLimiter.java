@@ -0,0 +1,129 @@
+package com.springbooks.library.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.springbooks.library.config.RateLimitProperties;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client and endpoint group.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will
+ * be full again (the generic cell rate algorithm): a request is allowed if that
+ * time is no further ahead than the burst allows, and moves it one emission
+ * interval further with a CAS. There are no locks and no refill task. Buckets
+ * live in a size-bounded Caffeine cache and expire once they would be full
+ * again, so an evicted bucket is indistinguishable from a new one.
+ */
+public class RateLimiter {
+
+    /** Outcome of {@link #tryAcquire}; {@code retryAfter} is zero when allowed. */
+    public record Decision(String group, boolean allowed, int limit, long remaining, Duration retryAfter) {
+    }
+
+    private record Key(String group, String client) {
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Cache<Key, AtomicLong> buckets;
+    private final Ticker ticker;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    RateLimiter(RateLimitProperties properties, Ticker ticker) {
+        this.ticker = ticker;
+        long longestRefill = 0;
+        for (Map.Entry<String, RateLimitProperties.Group> entry : properties.getGroups().entrySet()) {
+            Rule rule = new Rule(entry.getKey(), entry.getValue());
+            rules.add(rule);
+            longestRefill = Math.max(longestRefill, rule.capacityNanos);
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofNanos(Math.max(longestRefill, 1)))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one request from {@code client}'s bucket for the first group that
+     * matches, or returns null if no group applies.
+     */
+    public Decision tryAcquire(String method, String path, String client) {
+        Rule rule = match(method, path);
+        if (rule == null) {
+            return null;
+        }
+        long now = ticker.read();
+        AtomicLong bucket = buckets.get(new Key(rule.name, client), key -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            long next = start + rule.intervalNanos;
+            long backlog = next - now;
+            if (backlog > rule.capacityNanos) {
+                return new Decision(rule.name, false, rule.burst, 0,
+                        Duration.ofNanos(backlog - rule.capacityNanos));
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return new Decision(rule.name, true, rule.burst,
+                        (rule.capacityNanos - backlog) / rule.intervalNanos, Duration.ZERO);
+            }
+        }
+    }
+
+    private Rule match(String method, String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(method, path, pathMatcher)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+
+        final String name;
+        final List<String> paths;
+        final List<String> methods;
+        final int burst;
+        final long intervalNanos;
+        // Time a full bucket takes to refill from empty
+        final long capacityNanos;
+
+        Rule(String name, RateLimitProperties.Group group) {
+            if (group.getLimit() < 1) {
+                throw new IllegalArgumentException("Rate limit group " + name + " needs a limit of at least 1");
+            }
+            this.name = name;
+            this.paths = group.getPaths();
+            this.methods = group.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).toList();
+            this.burst = group.getBurst() != null ? Math.max(group.getBurst(), 1) : group.getLimit();
+            this.intervalNanos = Math.max(group.getPeriod().toNanos() / group.getLimit(), 1);
+            this.capacityNanos = intervalNanos * burst;
+        }
+
+        boolean matches(String method, String path, AntPathMatcher pathMatcher) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (String pattern : paths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
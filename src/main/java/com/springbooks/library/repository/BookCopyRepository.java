@@ -0,0 +1,55 @@
+package com.springbooks.library.repository;
+
+import com.springbooks.library.model.entity.BookCopy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
+
+    /**
+     * The lowest-numbered free copy of each given title and how many are free,
+     * answered from {@code idx_book_copies_free}. Callers hold the titles' row
+     * locks, which every change to a copy's status takes first, so the copies
+     * returned cannot be claimed by anyone else.
+     */
+    @Query("select b.id as bookId, min(c.id) as copyId, count(c.id) as freeCopies, b.version as bookVersion "
+         + "from BookCopy c join c.book b "
+         + "where b.id in :bookIds "
+         + "and c.status = com.springbooks.library.model.entity.BookCopy$Status.AVAILABLE "
+         + "group by b.id, b.version")
+    List<FreeCopy> findFirstFreeCopies(@Param("bookIds") Collection<Long> bookIds);
+
+    @Modifying
+    @Query("update BookCopy c set c.status = com.springbooks.library.model.entity.BookCopy$Status.BORROWED "
+         + "where c.id in :ids")
+    int markAllBorrowed(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update BookCopy c set c.status = com.springbooks.library.model.entity.BookCopy$Status.AVAILABLE "
+         + "where c.id in :ids")
+    int markAllReturned(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from BookCopy c where c.book.id = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    interface FreeCopy {
+
+        Long getBookId();
+
+        Long getCopyId();
+
+        /** Free copies of the title, including {@link #getCopyId()}. */
+        Long getFreeCopies();
+
+        /** Version of the title's row, including the caller's own uncommitted changes. */
+        Long getBookVersion();
+    }
+}
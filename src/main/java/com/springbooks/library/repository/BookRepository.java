@@ -1,15 +1,99 @@
 package com.springbooks.library.repository;
 
 import com.springbooks.library.model.entity.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String STREAM_FETCH_SIZE = "500";
+
     Optional<Book> findByIsbn(String isbn);
 
     boolean existsByIsbn(String isbn);
+
+    /**
+     * Returns which of the given ISBNs are already in the catalog, in one query.
+     */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Keyset page: books with an ID strictly greater than the cursor, in ID order.
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
+
+    /**
+     * Streams the whole catalog in ID order. Must be consumed inside a transaction
+     * and closed afterwards; the fetch size keeps the JDBC driver from buffering
+     * the full result set.
+     */
+    @Query("select b from Book b order by b.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAll();
+
+    /**
+     * Takes one copy of each given title off the shelf, setting
+     * {@code isBorrowed} when it was the last. A single conditional update per
+     * title, so it also claims the copy for callers that hold no lock yet.
+     *
+     * @return how many titles had a free copy
+     */
+    @Modifying
+    @Query("update Book b set b.availableCopies = b.availableCopies - 1, "
+         + "b.isBorrowed = case when b.availableCopies = 1 then true else false end, "
+         + "b.version = b.version + 1 "
+         + "where b.id in :ids and b.availableCopies > 0")
+    int takeCopies(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Puts one copy of each given title back on the shelf.
+     *
+     * @return how many titles had a copy on loan
+     */
+    @Modifying
+    @Query("update Book b set b.availableCopies = b.availableCopies + 1, b.isBorrowed = false, "
+         + "b.version = b.version + 1 "
+         + "where b.id in :ids and b.availableCopies < b.totalCopies")
+    int releaseCopies(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copy counters of the given titles, row-locked until the transaction ends
+     * so following updates see the same state. Rows are locked in ID order so
+     * overlapping batches cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id as id, b.availableCopies as availableCopies, b.totalCopies as totalCopies, "
+         + "b.version as version from Book b where b.id in :ids order by b.id")
+    List<CirculationState> lockCirculationState(@Param("ids") Collection<Long> ids);
+
+    interface CirculationState {
+
+        Long getId();
+
+        Integer getAvailableCopies();
+
+        Integer getTotalCopies();
+
+        Long getVersion();
+    }
 }
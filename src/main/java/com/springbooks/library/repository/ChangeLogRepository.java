@@ -0,0 +1,55 @@
+package com.springbooks.library.repository;
+
+import com.springbooks.library.model.entity.ChangeLogEntry;
+import com.springbooks.library.model.entity.ChangeLogHead;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long since, Limit limit);
+
+    /**
+     * Reserves {@code count} sequence numbers. The head row stays locked until
+     * the transaction ends.
+     */
+    @Modifying
+    @Query("update ChangeLogHead h set h.lastSeq = h.lastSeq + :count where h.id = " + ChangeLogHead.ID)
+    int advanceHead(@Param("count") long count);
+
+    @Query("select h.lastSeq from ChangeLogHead h where h.id = " + ChangeLogHead.ID)
+    long findLastSeq();
+
+    @Query("select h.purgedThrough from ChangeLogHead h where h.id = " + ChangeLogHead.ID)
+    long findPurgedThrough();
+
+    @Modifying
+    @Query("update ChangeLogHead h set h.purgedThrough = :seq where h.id = " + ChangeLogHead.ID + " and h.purgedThrough < :seq")
+    int advancePurgedThrough(@Param("seq") long seq);
+
+    /**
+     * Deletes entries older than {@code cutoff} that a later entry for the same
+     * entity supersedes; consumers still see the later one.
+     */
+    @Modifying
+    @Query("delete from ChangeLogEntry c where c.changedAt < :cutoff and exists ("
+         + "select 1 from ChangeLogEntry n where n.entityType = c.entityType and n.entityId = c.entityId and n.seq > c.seq)")
+    int deleteSuperseded(@Param("cutoff") Instant cutoff);
+
+    @Query("select max(c.seq) from ChangeLogEntry c where c.changeType = "
+         + "com.springbooks.library.model.entity.ChangeLogEntry$ChangeType.DELETED and c.changedAt < :cutoff")
+    Long findLastTombstoneBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from ChangeLogEntry c where c.changeType = "
+         + "com.springbooks.library.model.entity.ChangeLogEntry$ChangeType.DELETED and c.seq <= :seq")
+    int deleteTombstonesThrough(@Param("seq") long seq);
+}
@@ -0,0 +1,16 @@
+package com.springbooks.library.repository;
+
+import com.springbooks.library.model.entity.FineSettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface FineSettlementRepository extends JpaRepository<FineSettlement, LocalDate> {
+
+    @Query("select max(s.fineDate) from FineSettlement s")
+    Optional<LocalDate> findLatestFineDate();
+}
@@ -0,0 +1,54 @@
+package com.springbooks.library.repository;
+
+import com.springbooks.library.model.entity.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    boolean existsByBookIdAndMemberId(Long bookId, Long memberId);
+
+    long countByBookId(Long bookId);
+
+    /** Number of holds on a book placed before {@code holdId}. */
+    long countByBookIdAndIdLessThan(Long bookId, Long holdId);
+
+    /**
+     * The first hold in each of the given books' queues.
+     */
+    @Query("select h.id as id, h.book.id as bookId, h.member.id as memberId from Hold h "
+         + "where h.book.id in :bookIds and h.id = (select min(h2.id) from Hold h2 where h2.book = h.book)")
+    List<QueueEntry> findQueueHeads(@Param("bookIds") Collection<Long> bookIds);
+
+    /** Every hold in queue order, for building the in-memory index. */
+    @Query("select h.id as id, h.book.id as bookId, h.member.id as memberId from Hold h order by h.id")
+    List<QueueEntry> findAllQueueEntries();
+
+    @Modifying
+    @Query("delete from Hold h where h.book.id = :bookId and h.member.id = :memberId")
+    int deleteByBookIdAndMemberId(@Param("bookId") Long bookId, @Param("memberId") Long memberId);
+
+    @Modifying
+    @Query("delete from Hold h where h.book.id = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("delete from Hold h where h.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface QueueEntry {
+
+        Long getId();
+
+        Long getBookId();
+
+        Long getMemberId();
+    }
+}
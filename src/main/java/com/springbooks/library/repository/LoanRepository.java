@@ -0,0 +1,220 @@
+package com.springbooks.library.repository;
+
+import com.springbooks.library.model.entity.Loan;
+import com.springbooks.library.model.response.LoanResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    /**
+     * Loans {@code l} due a fine for {@code :day}: out past their due date when
+     * the day started at {@code :dayStart}, not yet charged for it and below
+     * the {@code :cap} per loan.
+     */
+    String FINE_DUE = "l.dueAt < :dayStart and (l.returnedAt is null or l.returnedAt > :dayStart) "
+                    + "and (l.finedThrough is null or l.finedThrough < :day) and l.fineAmount < :cap";
+
+    boolean existsByBookIdAndMemberIdAndReturnedAtIsNull(Long bookId, Long memberId);
+
+    /**
+     * Active loans of a member, answered from {@code idx_loans_member_active}.
+     */
+    @Query("select new com.springbooks.library.model.response.LoanResponse("
+         + "l.id, l.book.id, l.copy.id, l.member.id, l.borrowedAt, l.dueAt, l.returnedAt) "
+         + "from Loan l where l.member.id = :memberId and l.returnedAt is null "
+         + "order by l.borrowedAt desc")
+    List<LoanResponse> findActiveByMemberId(@Param("memberId") Long memberId);
+
+    /**
+     * Keyset page of a book's loan history, newest first, answered from
+     * {@code idx_loans_book_history}.
+     */
+    @Query("select new com.springbooks.library.model.response.LoanResponse("
+         + "l.id, l.book.id, l.copy.id, l.member.id, l.borrowedAt, l.dueAt, l.returnedAt) "
+         + "from Loan l where l.book.id = :bookId and l.id < :cursor "
+         + "order by l.id desc")
+    List<LoanResponse> findHistoryByBookId(@Param("bookId") Long bookId, @Param("cursor") Long cursor, Limit limit);
+
+    /**
+     * Keyset page of active loans past due at {@code now}, oldest due date
+     * first, answered from {@code idx_loans_due}. The cursor is the due date
+     * and ID of the last loan on the previous page.
+     */
+    @Query("select new com.springbooks.library.model.response.LoanResponse("
+         + "l.id, l.book.id, l.copy.id, l.member.id, l.borrowedAt, l.dueAt, l.returnedAt) "
+         + "from Loan l where l.returnedAt is null and l.dueAt < :now "
+         + "and (l.dueAt > :afterDueAt or (l.dueAt = :afterDueAt and l.id > :afterId)) "
+         + "order by l.dueAt, l.id")
+    List<LoanResponse> findOverdue(@Param("now") Instant now, @Param("afterDueAt") Instant afterDueAt,
+                                   @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select l.dueAt from Loan l where l.id = :id")
+    Optional<Instant> findDueAtById(@Param("id") Long id);
+
+    /**
+     * Keyset page of active loans not yet flagged overdue that fall due by
+     * {@code until}, in due order, answered from {@code idx_loans_due}.
+     */
+    @Query("select l.id as id, l.dueAt as dueAt from Loan l "
+         + "where l.returnedAt is null and l.overdueAt is null and l.dueAt <= :until "
+         + "and (l.dueAt > :afterDueAt or (l.dueAt = :afterDueAt and l.id > :afterId)) "
+         + "order by l.dueAt, l.id")
+    List<DueLoan> findComingDue(@Param("afterDueAt") Instant afterDueAt, @Param("afterId") Long afterId,
+                                @Param("until") Instant until, Limit limit);
+
+    /**
+     * Those of the given loans that are past due at {@code now}, still out and
+     * not yet flagged, row-locked so a concurrent return waits for the flag.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l.id as id, l.book.id as bookId, l.member.id as memberId, l.dueAt as dueAt from Loan l "
+         + "where l.id in :ids and l.returnedAt is null and l.overdueAt is null and l.dueAt <= :now "
+         + "order by l.id")
+    List<OverdueLoan> lockNewlyOverdue(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Loan l set l.overdueAt = :overdueAt where l.id in :ids")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("overdueAt") Instant overdueAt);
+
+    /**
+     * The oldest active loan of each given title, answered from
+     * {@code idx_loans_book_active}. Returning a title by ID brings back the
+     * copy that has been out longest.
+     */
+    @Query("select l.id as id, l.copy.id as copyId, l.book.id as bookId from Loan l where l.id in ("
+         + "select min(a.id) from Loan a where a.book.id in :bookIds and a.returnedAt is null "
+         + "group by a.book.id)")
+    List<ActiveLoan> findOldestActiveLoans(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Opens one loan per copy for the member in a single insert.
+     */
+    @Modifying
+    @Query("insert into Loan (book, copy, member, borrowedAt, dueAt, fineAmount) "
+         + "select c.book, c, m, :borrowedAt, :dueAt, 0bd from BookCopy c, Member m "
+         + "where c.id in :copyIds and m.id = :memberId")
+    int openLoans(@Param("copyIds") Collection<Long> copyIds, @Param("memberId") Long memberId,
+                  @Param("borrowedAt") Instant borrowedAt, @Param("dueAt") Instant dueAt);
+
+    /**
+     * The member's active loans opened at {@code borrowedAt}, answered from
+     * {@code idx_loans_member_active}; finds the loans {@link #openLoans} inserted.
+     */
+    @Query("select l.id as id, l.book.id as bookId from Loan l "
+         + "where l.member.id = :memberId and l.returnedAt is null and l.borrowedAt = :borrowedAt")
+    List<OpenedLoan> findOpenedLoans(@Param("memberId") Long memberId, @Param("borrowedAt") Instant borrowedAt);
+
+    @Modifying
+    @Query("update Loan l set l.returnedAt = :returnedAt where l.id in :ids and l.returnedAt is null")
+    int closeLoans(@Param("ids") Collection<Long> ids, @Param("returnedAt") Instant returnedAt);
+
+    /**
+     * Charges the loans of members in {@code [fromMemberId, toMemberId)} that
+     * are due a fine for {@code day}, reading them from
+     * {@code idx_loans_member_active}. Each loan is charged once per day, so
+     * running a chunk again changes nothing.
+     */
+    @Modifying
+    @Query("update Loan l set l.fineAmount = least(l.fineAmount + :rate, :cap), l.finedThrough = :day "
+         + "where l.member.id >= :fromMemberId and l.member.id < :toMemberId and " + FINE_DUE)
+    int accrueFines(@Param("day") LocalDate day, @Param("dayStart") Instant dayStart,
+                    @Param("fromMemberId") long fromMemberId, @Param("toMemberId") long toMemberId,
+                    @Param("rate") BigDecimal rate, @Param("cap") BigDecimal cap);
+
+    @Modifying
+    @Query("delete from Loan l where l.book.id = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * Scrolls over the loans borrowed from {@code since} up to, not including, {@code until}, from
+     * {@code idx_loans_borrowed}. Must be consumed inside a transaction and
+     * closed afterwards.
+     */
+    @Query("select l.id as id, l.book.id as bookId, l.member.id as memberId, l.borrowedAt as borrowedAt from Loan l "
+         + "where l.borrowedAt >= :since and l.borrowedAt < :until")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<BorrowedLoan> streamBorrowedBetween(@Param("since") Instant since, @Param("until") Instant until);
+
+    /**
+     * Scrolls over the loans returned from {@code since} up to, not including, {@code until}, from
+     * {@code idx_loans_due}. Must be consumed inside a transaction and closed
+     * afterwards.
+     */
+    @Query("select l.id as id, l.returnedAt as returnedAt from Loan l where l.returnedAt >= :since and l.returnedAt < :until")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ReturnedLoan> streamReturnedBetween(@Param("since") Instant since, @Param("until") Instant until);
+
+    interface ActiveLoan {
+
+        Long getId();
+
+        Long getCopyId();
+
+        Long getBookId();
+    }
+
+    interface OpenedLoan {
+
+        Long getId();
+
+        Long getBookId();
+    }
+
+    interface BorrowedLoan {
+
+        Long getId();
+
+        Long getBookId();
+
+        Long getMemberId();
+
+        Instant getBorrowedAt();
+    }
+
+    interface ReturnedLoan {
+
+        Long getId();
+
+        Instant getReturnedAt();
+    }
+
+    interface DueLoan {
+
+        Long getId();
+
+        Instant getDueAt();
+    }
+
+    interface OverdueLoan {
+
+        Long getId();
+
+        Long getBookId();
+
+        Long getMemberId();
+
+        Instant getDueAt();
+    }
+}
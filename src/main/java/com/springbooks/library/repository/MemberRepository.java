@@ -1,15 +1,98 @@
 package com.springbooks.library.repository;
 
 import com.springbooks.library.model.entity.Member;
+import com.springbooks.library.model.response.MemberResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
+    String STREAM_FETCH_SIZE = "1000";
+
     Optional<Member> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Returns which of the given emails are already registered, in one query.
+     */
+    @Query("select m.email from Member m where m.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Keyset page projected straight into {@link MemberResponse}, so no managed
+     * {@link Member} entities are created.
+     */
+    @Query("select new com.springbooks.library.model.response.MemberResponse(m.id, m.name, m.email) "
+         + "from Member m where m.id > :cursor order by m.id")
+    List<MemberResponse> findPageAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("select new com.springbooks.library.model.response.MemberResponse(m.id, m.name, m.email) "
+         + "from Member m where m.id in :ids")
+    List<MemberResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Scrolls over all members as {@link MemberResponse} projections. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @Query("select new com.springbooks.library.model.response.MemberResponse(m.id, m.name, m.email) "
+         + "from Member m order by m.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<MemberResponse> streamAll();
+
+    @Query("select m.fineBalance from Member m where m.id = :id")
+    Optional<BigDecimal> findFineBalanceById(@Param("id") Long id);
+
+    @Query("select min(m.id) as minId, max(m.id) as maxId from Member m")
+    IdRange findIdRange();
+
+    /**
+     * Adds the fines for {@code day} of the loans that
+     * {@link LoanRepository#accrueFines} is about to charge to the balances of
+     * members in {@code [fromMemberId, toMemberId)}. Must run first, in the
+     * same transaction.
+     */
+    @Modifying
+    @Query("update Member m set m.fineBalance = m.fineBalance + ("
+         + "select sum(least(:cap - l.fineAmount, :rate)) from Loan l where l.member = m and " + LoanRepository.FINE_DUE + ") "
+         + "where m.id >= :fromMemberId and m.id < :toMemberId "
+         + "and exists (select l.id from Loan l where l.member = m and " + LoanRepository.FINE_DUE + ")")
+    int accrueFines(@Param("day") LocalDate day, @Param("dayStart") Instant dayStart,
+                    @Param("fromMemberId") long fromMemberId, @Param("toMemberId") long toMemberId,
+                    @Param("rate") BigDecimal rate, @Param("cap") BigDecimal cap);
+
+    /**
+     * Takes a payment off a member's balance; any amount over the balance is
+     * not applied.
+     */
+    @Modifying
+    @Query("update Member m set m.fineBalance = m.fineBalance - least(:amount, m.fineBalance) where m.id = :id")
+    int payFines(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    interface IdRange {
+
+        Long getMinId();
+
+        Long getMaxId();
+    }
 }
@@ -0,0 +1,236 @@
+package com.springbooks.library.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book titles and authors.
+ * <p>
+ * Text is lower-cased, stripped of accents and split on anything that is not a
+ * letter or digit. Every query token matches terms it is a prefix of, so
+ * {@code "orw fa"} finds "Animal Farm" by George Orwell; all tokens must match
+ * (AND). Exact matches outrank prefix matches and title matches outrank author
+ * matches. Matching and scoring work on the sorted posting arrays and keep
+ * scores in primitive arrays, so a query allocates a few arrays per query
+ * token rather than an object per matching book. Reads share a lock; updates take it exclusively.
+ */
+public class BookSearchIndex {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A ranked slice of the matches for a query.
+     */
+    public record Hits(List<Long> ids, int totalHits) {
+    }
+
+    /**
+     * Adds a book, or replaces its terms if it is already indexed.
+     */
+    public void index(long id, String title, String author) {
+        Map<String, Integer> fieldsByTerm = new LinkedHashMap<>();
+        for (String token : tokenize(title)) {
+            fieldsByTerm.merge(token, Postings.TITLE, (a, b) -> a | b);
+        }
+        for (String token : tokenize(author)) {
+            fieldsByTerm.merge(token, Postings.AUTHOR, (a, b) -> a | b);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            String[] docTerms = new String[fieldsByTerm.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : fieldsByTerm.entrySet()) {
+                String term = entry.getKey();
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(term, postings);
+                } else {
+                    // Share the key instance so each distinct term is stored once
+                    term = terms.ceilingKey(term);
+                }
+                postings.add(id, entry.getValue());
+                docTerms[i++] = term;
+            }
+            documents.put(id, docTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the matching books ranked by relevance, then by ID.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Hits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<TokenMatch> matches = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                TokenMatch match = expand(token);
+                if (match.terms().isEmpty()) {
+                    return new Hits(List.of(), 0);
+                }
+                matches.add(match);
+            }
+            // Drive the intersection from the rarest token, narrow it down with the others
+            matches.sort(Comparator.comparingLong(TokenMatch::postingCount));
+
+            Candidates candidates = matches.get(0).collect();
+            for (int t = 1; t < matches.size() && candidates.size() > 0; t++) {
+                matches.get(t).narrow(candidates);
+            }
+            return new Hits(candidates.top(offset, limit), candidates.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = COMBINING_MARKS
+                .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized)) {
+            if (!token.isEmpty() && !tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeLocked(long id) {
+        String[] docTerms = documents.remove(id);
+        if (docTerms == null) {
+            return;
+        }
+        for (String term : docTerms) {
+            Postings postings = terms.get(term);
+            postings.remove(id);
+            if (postings.size() == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private TokenMatch expand(String token) {
+        List<Map.Entry<String, Postings>> expansions = new ArrayList<>();
+        long postingCount = 0;
+        for (Map.Entry<String, Postings> entry : terms.tailMap(token, true).entrySet()) {
+            if (!entry.getKey().startsWith(token)) {
+                break;
+            }
+            expansions.add(entry);
+            postingCount += entry.getValue().size();
+        }
+        return new TokenMatch(token, expansions, postingCount);
+    }
+
+    /**
+     * A query token together with every indexed term it is a prefix of.
+     */
+    private record TokenMatch(String token, List<Map.Entry<String, Postings>> terms, long postingCount) {
+
+        /**
+         * Unions the postings of all the terms into books ordered by ID, each
+         * with its best weight for this token.
+         */
+        Candidates collect() {
+            // Entries pack id << 3 | exact << 2 | fields, so one primitive sort orders them by book
+            long[] entries = new long[Math.toIntExact(postingCount)];
+            int n = 0;
+            for (Map.Entry<String, Postings> term : terms) {
+                Postings postings = term.getValue();
+                long exact = term.getKey().equals(token) ? 4 : 0;
+                for (int i = 0; i < postings.size(); i++) {
+                    entries[n++] = postings.idAt(i) << 3 | exact | postings.fieldsAt(i);
+                }
+            }
+            Arrays.sort(entries, 0, n);
+            Candidates candidates = new Candidates(n);
+            for (int i = 0; i < n; i++) {
+                long entry = entries[i];
+                candidates.addOrMax(entry >>> 3, weight((int) (entry & 3), (entry & 4) != 0));
+            }
+            return candidates;
+        }
+
+        /**
+         * Drops the candidates this token does not match and adds its weight to
+         * the others' scores. Few candidates are probed with a binary search per
+         * term; otherwise this token's postings are unioned and merged with them.
+         */
+        void narrow(Candidates candidates) {
+            if ((long) candidates.size() * terms.size() <= postingCount) {
+                candidates.retainWeighted(this::bestWeight);
+            } else {
+                candidates.retainAll(collect());
+            }
+        }
+
+        float bestWeight(long id) {
+            float best = 0;
+            for (Map.Entry<String, Postings> term : terms) {
+                int fields = term.getValue().fields(id);
+                if (fields != 0) {
+                    best = Math.max(best, weight(fields, term.getKey().equals(token)));
+                }
+            }
+            return best;
+        }
+    }
+
+    private static float weight(int fields, boolean exact) {
+        float weight = 0;
+        if ((fields & Postings.TITLE) != 0) {
+            weight = exact ? 4f : 2f;
+        }
+        if ((fields & Postings.AUTHOR) != 0) {
+            weight = Math.max(weight, exact ? 2f : 1f);
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,156 @@
+package com.springbooks.library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Books matching a query so far with their scores, in ascending ID order.
+ * Kept in parallel primitive arrays so scoring allocates nothing per match.
+ * Not thread-safe; used by one search at a time.
+ */
+final class Candidates {
+
+    /** Weight of a single book for a query token, 0 if the token does not match it. */
+    @FunctionalInterface
+    interface Weigher {
+
+        float weight(long id);
+    }
+
+    private final long[] ids;
+    private final float[] scores;
+    private int size;
+
+    Candidates(int capacity) {
+        ids = new long[capacity];
+        scores = new float[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends a book with a higher ID than any so far, or raises the score of
+     * the last one if it is the same book.
+     */
+    void addOrMax(long id, float score) {
+        if (size > 0 && ids[size - 1] == id) {
+            scores[size - 1] = Math.max(scores[size - 1], score);
+            return;
+        }
+        ids[size] = id;
+        scores[size] = score;
+        size++;
+    }
+
+    /**
+     * Keeps the books {@code weigher} gives a weight to and adds that weight to their scores.
+     */
+    void retainWeighted(Weigher weigher) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            float weight = weigher.weight(ids[i]);
+            if (weight != 0) {
+                ids[kept] = ids[i];
+                scores[kept++] = scores[i] + weight;
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Keeps the books that are also in {@code other} and adds their scores there,
+     * in one pass over both ID-ordered lists.
+     */
+    void retainAll(Candidates other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; i++) {
+            long id = ids[i];
+            while (j < other.size && other.ids[j] < id) {
+                j++;
+            }
+            if (j < other.size && other.ids[j] == id) {
+                ids[kept] = id;
+                scores[kept++] = scores[i] + other.scores[j];
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Returns the IDs ranked {@code offset} to {@code offset + limit - 1} by
+     * score, then by ID. Only the best {@code offset + limit} are ever held, in
+     * a heap of array positions with the worst of them on top.
+     */
+    List<Long> top(int offset, int limit) {
+        if (offset >= size) {
+            return List.of();
+        }
+        int wanted = (int) Math.min((long) offset + limit, size);
+        int[] heap = new int[wanted];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < wanted) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (ranksBefore(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+        // Popping yields the worst first, so fill the ranking from the back
+        int[] ranked = new int[heapSize];
+        for (int k = heapSize - 1; k >= 0; k--) {
+            ranked[k] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+        List<Long> page = new ArrayList<>(ranked.length - offset);
+        for (int k = offset; k < ranked.length; k++) {
+            page.add(ids[ranked[k]]);
+        }
+        return page;
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        return scores[a] > scores[b] || scores[a] == scores[b] && ids[a] < ids[b];
+    }
+
+    private void siftUp(int[] heap, int k) {
+        int position = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (!ranksBefore(heap[parent], position)) {
+                break;
+            }
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = position;
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        if (heapSize == 0) {
+            return;
+        }
+        int k = 0;
+        int position = heap[0];
+        while (true) {
+            int worst = 2 * k + 1;
+            if (worst >= heapSize) {
+                break;
+            }
+            if (worst + 1 < heapSize && ranksBefore(heap[worst], heap[worst + 1])) {
+                worst++;
+            }
+            if (!ranksBefore(position, heap[worst])) {
+                break;
+            }
+            heap[k] = heap[worst];
+            k = worst;
+        }
+        heap[k] = position;
+    }
+}
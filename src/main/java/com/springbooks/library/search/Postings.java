@@ -0,0 +1,82 @@
+package com.springbooks.library.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted posting list for one term. Each entry packs a book ID and the fields
+ * the term occurs in ({@code id << 2 | fieldMask}) into a single long, so a
+ * posting costs eight bytes and lookups are a binary search.
+ * Not thread-safe; guarded by the owning index's lock.
+ */
+final class Postings {
+
+    static final int TITLE = 1;
+    static final int AUTHOR = 2;
+
+    private long[] entries = new long[2];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long idAt(int i) {
+        return entries[i] >>> 2;
+    }
+
+    int fieldsAt(int i) {
+        return (int) (entries[i] & 3);
+    }
+
+    /**
+     * @return the field mask for the book, or 0 if the term does not occur in it
+     */
+    int fields(long id) {
+        int i = indexOf(id);
+        return i >= 0 ? fieldsAt(i) : 0;
+    }
+
+    void add(long id, int fields) {
+        int i = indexOf(id);
+        if (i >= 0) {
+            entries[i] |= fields;
+            return;
+        }
+        int insertAt = -i - 1;
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+        }
+        System.arraycopy(entries, insertAt, entries, insertAt + 1, size - insertAt);
+        entries[insertAt] = id << 2 | fields;
+        size++;
+    }
+
+    void remove(long id) {
+        int i = indexOf(id);
+        if (i >= 0) {
+            System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Binary search on the ID part of the entries; same contract as
+     * {@link Arrays#binarySearch(long[], long)}.
+     */
+    private int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = entries[mid] >>> 2;
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
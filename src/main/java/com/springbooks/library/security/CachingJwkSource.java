@@ -0,0 +1,89 @@
+package com.springbooks.library.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caches the key set returned by a JWKS loader.
+ * <p>
+ * The set is reloaded when it is older than {@code ttl}, or when a token names
+ * a key the cached set does not contain, which is what a key rotation looks
+ * like to a resource server. Reloads caused by unknown keys are spaced at least
+ * {@code refreshCooldown} apart so tokens with made-up key IDs cannot hammer
+ * the key endpoint. A failed reload keeps the cached set and is not retried
+ * for {@code refreshCooldown} either, so an identity provider that is down is
+ * not called on every request.
+ */
+@Slf4j
+public class CachingJwkSource implements JWKSource<SecurityContext> {
+
+    private final Supplier<JWKSet> loader;
+    private final Duration ttl;
+    private final Duration refreshCooldown;
+    private final Clock clock;
+
+    private volatile JWKSet jwkSet;
+    private volatile Instant loadedAt = Instant.MIN;
+    private volatile Instant retryAfter = Instant.MIN;
+
+    public CachingJwkSource(Supplier<JWKSet> loader, Duration ttl, Duration refreshCooldown) {
+        this(loader, ttl, refreshCooldown, Clock.systemUTC());
+    }
+
+    CachingJwkSource(Supplier<JWKSet> loader, Duration ttl, Duration refreshCooldown, Clock clock) {
+        this.loader = loader;
+        this.ttl = ttl;
+        this.refreshCooldown = refreshCooldown;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        Instant now = clock.instant();
+        JWKSet current = jwkSet;
+        if (current == null || !now.isBefore(loadedAt.plus(ttl)) && !now.isBefore(retryAfter)) {
+            current = reload(current, now);
+        }
+        List<JWK> keys = selector.select(current);
+        if (keys.isEmpty() && !now.isBefore(loadedAt.plus(refreshCooldown)) && !now.isBefore(retryAfter)) {
+            keys = selector.select(reload(current, now));
+        }
+        return keys;
+    }
+
+    private synchronized JWKSet reload(JWKSet seen, Instant now) throws KeySourceException {
+        // Another thread may have reloaded while this one waited for the lock
+        if (jwkSet != seen) {
+            return jwkSet;
+        }
+        // Or failed to, in which case the cached set is served until the retry time
+        if (seen != null && now.isBefore(retryAfter)) {
+            return seen;
+        }
+        try {
+            JWKSet loaded = loader.get();
+            jwkSet = loaded;
+            loadedAt = now;
+            log.debug("Loaded JWK set with {} keys", loaded.getKeys().size());
+            return loaded;
+        } catch (RuntimeException e) {
+            if (seen != null) {
+                retryAfter = now.plus(refreshCooldown);
+                log.warn("Failed to reload JWK set, keeping the cached keys until {}: {}", retryAfter, e.getMessage());
+                return seen;
+            }
+            throw new KeySourceException("Failed to load JWK set", e);
+        }
+    }
+}
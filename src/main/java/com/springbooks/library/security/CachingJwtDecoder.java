@@ -0,0 +1,109 @@
+package com.springbooks.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers successfully decoded tokens so a client that repeats the same
+ * bearer token pays for parsing and signature verification once.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are not kept as
+ * keys. Each entry lives until the token's {@code exp} or {@code maxTtl},
+ * whichever comes first; tokens without an expiry and rejected tokens are not
+ * cached. A cached token is never returned at or past its {@code exp}, even if
+ * the cache has not evicted it yet.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<ByteBuffer, Jwt> cache;
+    private final Clock clock;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Duration maxTtl, long maxSize) {
+        this(delegate, maxTtl, maxSize, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, Duration maxTtl, long maxSize, Clock clock, Ticker ticker) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry(maxTtl.toNanos(), clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null);
+        }
+        ByteBuffer key = hash(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isLive(cached)) {
+                return cached;
+            }
+            cache.invalidate(key);
+        }
+        Jwt jwt = delegate.decode(token);
+        if (isLive(jwt)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    public Cache<ByteBuffer, Jwt> getCache() {
+        return cache;
+    }
+
+    private boolean isLive(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && clock.instant().isBefore(expiresAt);
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires each entry at its token's {@code exp}, capped at the maximum TTL.
+     */
+    private record UntilExpiry(long maxTtlNanos, Clock clock) implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            long untilExpiry = Duration.between(clock.instant(), jwt.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
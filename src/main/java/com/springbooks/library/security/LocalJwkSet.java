@@ -0,0 +1,81 @@
+package com.springbooks.library.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process stand-in for an identity provider's JWKS endpoint. It holds an
+ * RSA signing key plus the previous key after a {@link #rotate() rotation}, so
+ * tokens signed before the rotation stay valid, and it can sign tokens with
+ * the current key for local development and tests.
+ */
+public class LocalJwkSet implements Supplier<JWKSet> {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private volatile RSAKey current;
+    private volatile RSAKey previous;
+
+    public LocalJwkSet() {
+        this.current = generateKey();
+    }
+
+    /**
+     * Returns the public keys, as a JWKS endpoint would.
+     */
+    @Override
+    public JWKSet get() {
+        fetches.incrementAndGet();
+        RSAKey before = previous;
+        return before == null
+                ? new JWKSet(current.toPublicJWK())
+                : new JWKSet(List.of(current.toPublicJWK(), before.toPublicJWK()));
+    }
+
+    /**
+     * Starts signing with a new key and retires the key before the current one.
+     */
+    public synchronized void rotate() {
+        previous = current;
+        current = generateKey();
+    }
+
+    public String sign(JWTClaimsSet claims) {
+        RSAKey key = current;
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign token", e);
+        }
+        return jwt.serialize();
+    }
+
+    public int getFetchCount() {
+        return fetches.get();
+    }
+
+    private static RSAKey generateKey() {
+        try {
+            return new RSAKeyGenerator(2048)
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to generate RSA key", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+
+import java.util.List;
+
+/**
+ * Circulation statistics over the last {@code days} UTC days, up to
+ * {@code library.analytics.retention-days}; longer windows are shortened.
+ */
+public interface AnalyticsService {
+
+    int MAX_LIMIT = 100;
+
+    List<BorrowCountResponse> getMostBorrowedBooks(int days, int limit);
+
+    List<BorrowCountResponse> getMostActiveMembers(int days, int limit);
+
+    BorrowCountResponse getBookBorrows(Long bookId, int days);
+
+    BorrowCountResponse getMemberBorrows(Long memberId, int days);
+
+    /**
+     * Borrows and returns per hour for the last {@code hours} hours, oldest first.
+     */
+    List<HourlyCirculationResponse> getHourlyCirculation(int hours);
+}
@@ -0,0 +1,13 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.AvailabilityResponse;
+import com.springbooks.library.model.response.CursorPage;
+
+import java.util.List;
+
+public interface BookAvailabilityService {
+
+    CursorPage<Long> getAvailableBookIds(Long cursor, int size);
+
+    AvailabilityResponse checkAvailability(List<Long> bookIds);
+}
@@ -0,0 +1,12 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.SearchPage;
+
+public interface BookSearchService {
+
+    /** Deepest result reachable by paging; {@code (page + 1) * size} may not exceed it. */
+    int MAX_RESULT_WINDOW = 10_000;
+
+    SearchPage<BookResponse> search(String query, int page, int size);
+}
@@ -1,15 +1,42 @@
 package com.springbooks.library.service;
 
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.request.BatchMode;
 import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.response.BatchCirculationResponse;
 import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookService {
 
     BookResponse createBook(BookRequest request);
 
-    List<BookResponse> getAllBooks();
+    /**
+     * Creates a chunk of books in one transaction, skipping invalid rows and
+     * ISBNs that already exist. {@code offset} is the feed position of the
+     * first request and is used to number the results.
+     */
+    List<BulkItemResult> createBooks(List<BookRequest> requests, long offset);
+
+    CursorPage<BookResponse> getAllBooks(Long cursor, int size);
+
+    /**
+     * Like {@link #getAllBooks} but returns the entities, detached, for callers
+     * that serialize them without mapping to {@link BookResponse} first.
+     */
+    CursorPage<Book> getBookRows(Long cursor, int size);
+
+    void streamAllBooks(Consumer<BookResponse> consumer);
+
+    /**
+     * Like {@link #streamAllBooks} but passes the entities, which are detached
+     * once the consumer returns.
+     */
+    void streamAllBookRows(Consumer<Book> consumer);
 
     BookResponse getBookById(Long id);
 
@@ -17,7 +44,23 @@ public interface BookService {
 
     void deleteBook(Long id);
 
+    /**
+     * Lends the member any free copy of the book.
+     */
     void borrowBook(Long bookId, Long memberId);
 
+    /**
+     * Takes back the copy of the book that has been on loan longest.
+     */
     void returnBook(Long bookId);
+
+    /**
+     * Borrows several books for one member in one transaction. In
+     * {@link BatchMode#ALL_OR_NOTHING} mode nothing is borrowed unless every
+     * book can be; in {@link BatchMode#PARTIAL} mode the available books are
+     * borrowed and the rest reported.
+     */
+    BatchCirculationResponse borrowBooks(Long memberId, List<Long> bookIds, BatchMode mode);
+
+    BatchCirculationResponse returnBooks(List<Long> bookIds, BatchMode mode);
 }
@@ -0,0 +1,30 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.ChangeResponse;
+import com.springbooks.library.model.response.CursorPage;
+
+import java.time.Instant;
+
+public interface ChangeFeedService {
+
+    /**
+     * Changes committed after sequence number {@code since}, oldest first.
+     * Throws {@code ChangeFeedExpiredException} if entries after {@code since}
+     * may have been purged.
+     */
+    CursorPage<ChangeResponse> getChanges(long since, int size);
+
+    /**
+     * Sequence number of the latest committed change; a consumer that copies
+     * the catalog after reading it can continue from there.
+     */
+    long getLastSeq();
+
+    void assertCursorAvailable(long since);
+
+    /**
+     * Deletes superseded entries and expired deletions; returns how many
+     * entries were removed.
+     */
+    int compact(Instant now);
+}
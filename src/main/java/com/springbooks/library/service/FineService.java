@@ -0,0 +1,25 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.FineBalanceResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface FineService {
+
+    FineBalanceResponse getBalance(Long memberId);
+
+    /**
+     * Takes a payment off the member's balance; any amount over the balance
+     * is not applied.
+     */
+    FineBalanceResponse payFines(Long memberId, BigDecimal amount);
+
+    /**
+     * Charges the fines for {@code day} of members with IDs in
+     * {@code [fromMemberId, toMemberId)} in one transaction. Safe to repeat.
+     *
+     * @return how many loans were charged
+     */
+    int settleChunk(LocalDate day, long fromMemberId, long toMemberId);
+}
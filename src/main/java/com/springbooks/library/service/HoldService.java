@@ -0,0 +1,12 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.HoldResponse;
+
+public interface HoldService {
+
+    HoldResponse placeHold(Long bookId, Long memberId);
+
+    void cancelHold(Long bookId, Long memberId);
+
+    HoldResponse getHold(Long bookId, Long memberId);
+}
@@ -0,0 +1,29 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.LoanResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanService {
+
+    List<LoanResponse> getActiveLoansForMember(Long memberId);
+
+    CursorPage<LoanResponse> getLoanHistoryForBook(Long bookId, Long cursor, int size);
+
+    /**
+     * Active loans past their due date, oldest due date first; {@code cursor}
+     * is the ID of the last loan on the previous page.
+     */
+    CursorPage<LoanResponse> getOverdueLoans(Long cursor, int size);
+
+    /**
+     * Flags those of the given loans that are past due at {@code now} and
+     * still out, publishing a {@code LoanOverdueEvent} for each.
+     *
+     * @return how many loans were flagged
+     */
+    int markOverdue(Collection<Long> loanIds, Instant now);
+}
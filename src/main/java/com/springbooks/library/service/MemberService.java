@@ -1,15 +1,27 @@
 package com.springbooks.library.service;
 
 import com.springbooks.library.model.request.MemberRequest;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
 import com.springbooks.library.model.response.MemberResponse;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberService {
 
     MemberResponse registerMember(MemberRequest request);
 
-    List<MemberResponse> getAllMembers();
+    /**
+     * Registers a chunk of members in one transaction, skipping invalid rows and
+     * emails that are already registered. {@code offset} is the feed position of
+     * the first request and is used to number the results.
+     */
+    List<BulkItemResult> registerMembers(List<MemberRequest> requests, long offset);
+
+    CursorPage<MemberResponse> getAllMembers(Long cursor, int size);
+
+    void streamAllMembers(Consumer<MemberResponse> consumer);
 
     MemberResponse getMemberById(Long id);
 
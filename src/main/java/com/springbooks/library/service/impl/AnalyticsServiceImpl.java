@@ -0,0 +1,171 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.analytics.CirculationRollups;
+import com.springbooks.library.config.AnalyticsProperties;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.service.AnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Answers circulation statistics from {@link CirculationRollups} without
+ * touching the database. The rollups are loaded at startup from the loans of
+ * the retention window and then follow committed borrows and returns, so
+ * every query costs the same however many loans there are.
+ * <p>
+ * The startup load runs while requests are already served. Events that reach
+ * the listener before it starts are dropped, as their loans are committed and
+ * the load reads them. Events arriving during the load are held back and
+ * applied afterwards unless the load read the same loan, matched by loan ID.
+ * Borrows and returns are recorded at the time written to the loan, not when
+ * the event arrives.
+ */
+@Service
+@Slf4j
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final LoanRepository loanRepository;
+    private final CirculationRollups rollups;
+
+    // Events held back during the startup load; guarded by itself, as are state changes
+    private final List<BookCirculationEvent> pending = new ArrayList<>();
+    private volatile State state = State.NOT_LOADED;
+
+    private enum State {
+        NOT_LOADED,
+        LOADING,
+        LIVE
+    }
+
+    public AnalyticsServiceImpl(LoanRepository loanRepository, AnalyticsProperties properties) {
+        this.loanRepository = loanRepository;
+        this.rollups = new CirculationRollups(properties.getRetentionDays(), properties.getSketchCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildRollups() {
+        log.info("Building circulation rollups");
+        long start = System.currentTimeMillis();
+        
+        synchronized (pending) {
+            state = State.LOADING;
+        }
+        Instant until = Instant.now();
+        Instant since = until.truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(rollups.days() - 1));
+        // Loan IDs are dense, so the bitmaps stay small
+        Roaring64Bitmap borrowsRead = new Roaring64Bitmap();
+        Roaring64Bitmap returnsRead = new Roaring64Bitmap();
+        try (Stream<LoanRepository.BorrowedLoan> loans = loanRepository.streamBorrowedBetween(since, until)) {
+            loans.forEach(loan -> {
+                rollups.recordBorrow(loan.getBookId(), loan.getMemberId(), loan.getBorrowedAt());
+                borrowsRead.addLong(loan.getId());
+            });
+        }
+        try (Stream<LoanRepository.ReturnedLoan> returns = loanRepository.streamReturnedBetween(since, until)) {
+            returns.forEach(loan -> {
+                rollups.recordReturn(loan.getReturnedAt());
+                returnsRead.addLong(loan.getId());
+            });
+        }
+        
+        synchronized (pending) {
+            for (BookCirculationEvent event : pending) {
+                Roaring64Bitmap read = event.borrowed() ? borrowsRead : returnsRead;
+                if (event.loanId() == null || !read.contains(event.loanId())) {
+                    record(event);
+                }
+            }
+            pending.clear();
+            state = State.LIVE;
+        }
+        
+        log.info("Circulation rollups built from the loans between {} and {} in {} ms",
+                since, until, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onCirculation(BookCirculationEvent event) {
+        if (state != State.LIVE) {
+            synchronized (pending) {
+                if (state == State.LOADING) {
+                    pending.add(event);
+                }
+                if (state != State.LIVE) {
+                    return;
+                }
+            }
+        }
+        record(event);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.ChangeType.DELETED) {
+            rollups.removeBook(event.bookId());
+        }
+    }
+
+    @Override
+    public List<BorrowCountResponse> getMostBorrowedBooks(int days, int limit) {
+        log.debug("Fetching the {} most borrowed books of the last {} days", limit, days);
+        return rollups.topBooks(Instant.now(), clampDays(days), clampLimit(limit));
+    }
+
+    @Override
+    public List<BorrowCountResponse> getMostActiveMembers(int days, int limit) {
+        log.debug("Fetching the {} most active members of the last {} days", limit, days);
+        return rollups.topMembers(Instant.now(), clampDays(days), clampLimit(limit));
+    }
+
+    @Override
+    public BorrowCountResponse getBookBorrows(Long bookId, int days) {
+        log.debug("Fetching borrows of book ID: {} in the last {} days", bookId, days);
+        return new BorrowCountResponse(bookId, rollups.bookBorrows(bookId, Instant.now(), clampDays(days)));
+    }
+
+    @Override
+    public BorrowCountResponse getMemberBorrows(Long memberId, int days) {
+        log.debug("Fetching borrows by member ID: {} in the last {} days", memberId, days);
+        return new BorrowCountResponse(memberId, rollups.memberBorrows(memberId, Instant.now(), clampDays(days)));
+    }
+
+    @Override
+    public List<HourlyCirculationResponse> getHourlyCirculation(int hours) {
+        log.debug("Fetching hourly circulation of the last {} hours", hours);
+        return rollups.hourly(Instant.now(), Math.max(1, Math.min(hours, rollups.days() * 24)));
+    }
+
+    private void record(BookCirculationEvent event) {
+        if (event.borrowed()) {
+            rollups.recordBorrow(event.bookId(), event.memberId(), event.at());
+        } else {
+            rollups.recordReturn(event.at());
+        }
+    }
+
+    private int clampDays(int days) {
+        return Math.max(1, Math.min(days, rollups.days()));
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
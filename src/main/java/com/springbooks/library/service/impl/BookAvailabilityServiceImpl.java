@@ -0,0 +1,92 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.availability.BookAvailabilityIndex;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.model.response.AvailabilityResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.service.BookAvailabilityService;
+import com.springbooks.library.service.BookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Answers availability questions from {@link BookAvailabilityIndex} without
+ * touching the database. The index is loaded once at startup and then follows
+ * committed borrows, returns and catalog changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookAvailabilityServiceImpl implements BookAvailabilityService {
+
+    @Autowired BookService bookService;
+
+    private final BookAvailabilityIndex index = new BookAvailabilityIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        log.info("Building book availability index");
+        long start = System.currentTimeMillis();
+        
+        // Events committed while this runs carry newer versions, so neither overwrites the other
+        bookService.streamAllBookRows(book ->
+                index.put(book.getId(), Boolean.TRUE.equals(book.getIsBorrowed()), book.getVersion()));
+        index.optimize();
+        
+        log.info("Book availability index built with {} books ({} available) in {} ms",
+                index.cataloguedCount(), index.availableCount(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> index.put(event.bookId(), false, 0L);
+            case DELETED -> index.remove(event.bookId());
+            case UPDATED -> { }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCirculation(BookCirculationEvent event) {
+        // A title counts as borrowed only once its last copy is out; listeners of
+        // concurrent transactions may run out of commit order, hence the version
+        index.setBorrowed(event.bookId(), event.availableCopies() == 0, event.version());
+    }
+
+    @Override
+    public CursorPage<Long> getAvailableBookIds(Long cursor, int size) {
+        log.debug("Fetching available book IDs after cursor: {} size: {}", cursor, size);
+        
+        List<Long> ids = index.availableAfter(cursor == null ? 0L : cursor, size + 1);
+        return CursorPage.of(ids, size, Function.identity());
+    }
+
+    @Override
+    public AvailabilityResponse checkAvailability(List<Long> bookIds) {
+        log.debug("Checking availability of {} books", bookIds.size());
+        
+        AvailabilityResponse response = new AvailabilityResponse();
+        for (Long id : new LinkedHashSet<>(bookIds)) {
+            if (id == null) {
+                continue;
+            }
+            switch (index.availability(id)) {
+                case AVAILABLE -> response.getAvailable().add(id);
+                case BORROWED -> response.getBorrowed().add(id);
+                case UNKNOWN -> response.getUnknown().add(id);
+            }
+        }
+        return response;
+    }
+}
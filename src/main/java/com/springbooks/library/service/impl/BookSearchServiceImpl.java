@@ -0,0 +1,89 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.exception.SearchPageTooDeepException;
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.SearchPage;
+import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.search.BookSearchIndex;
+import com.springbooks.library.service.BookSearchService;
+import com.springbooks.library.service.BookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text catalog search. Ranking runs entirely against the in-memory
+ * {@link BookSearchIndex}; the database is only hit to load the page of
+ * matching books by primary key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchServiceImpl implements BookSearchService {
+
+    @Autowired BookRepository bookRepository;
+    @Autowired BookMapper bookMapper;
+    @Autowired BookService bookService;
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        log.info("Building catalog search index");
+        long start = System.currentTimeMillis();
+        
+        bookService.streamAllBooks(book -> index.index(book.getId(), book.getTitle(), book.getAuthor()));
+        
+        log.info("Catalog search index built with {} books in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Applies committed catalog changes; rolled back changes never reach the index.
+     */
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index.index(event.bookId(), event.title(), event.author());
+            case DELETED -> index.remove(event.bookId());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchPage<BookResponse> search(String query, int page, int size) {
+        log.debug("Searching catalog for '{}' page: {} size: {}", query, page, size);
+        
+        long window = ((long) page + 1) * size;
+        if (page < 0 || window > MAX_RESULT_WINDOW) {
+            throw new SearchPageTooDeepException("Search results can only be paged through the first "
+                    + MAX_RESULT_WINDOW + " hits; page " + page + " of size " + size + " is beyond them");
+        }
+        
+        BookSearchIndex.Hits hits = index.search(query, Math.multiplyExact(page, size), size);
+        Map<Long, Book> books = bookRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        
+        // Keep the index's ranking; skip books deleted since the index was read
+        List<BookResponse> content = hits.ids().stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toResponse)
+                .toList();
+        return new SearchPage<>(content, page, size, hits.totalHits());
+    }
+}
@@ -1,32 +1,81 @@
 package com.springbooks.library.service.impl;
 
+import com.springbooks.library.config.CacheConfig;
+import com.springbooks.library.config.FinesProperties;
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.etag.TaggedBookCache;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.event.HoldChangedEvent;
 import com.springbooks.library.exception.*;
 import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.entity.BookCopy;
+import com.springbooks.library.model.entity.Loan;
 import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.request.BatchMode;
 import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.response.BatchCirculationResponse;
 import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CirculationResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.repository.BookCopyRepository;
 import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.repository.HoldRepository;
+import com.springbooks.library.repository.LoanRepository;
 import com.springbooks.library.repository.MemberRepository;
 import com.springbooks.library.service.BookService;
+import com.springbooks.library.util.UniqueKeyImport;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional
 public class BookServiceImpl implements BookService {
 
     @Autowired BookRepository bookRepository;
+    @Autowired BookCopyRepository bookCopyRepository;
     @Autowired MemberRepository memberRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired HoldRepository holdRepository;
     @Autowired BookMapper bookMapper;
+    @Autowired Validator validator;
+    @Autowired ApplicationEventPublisher eventPublisher;
+    @Autowired FinesProperties finesProperties;
+    @Autowired TaggedBookCache bookCache;
+    @Autowired TransactionOperations transactions;
+    @PersistenceContext EntityManager entityManager;
 
     @Override
     public BookResponse createBook(BookRequest request) {
@@ -38,34 +87,129 @@ public class BookServiceImpl implements BookService {
         
         Book book = bookMapper.toEntity(request);
         Book savedBook = bookRepository.save(book);
+        bookCopyRepository.saveAll(newCopies(savedBook));
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor()));
         
         log.info("Book created successfully with ID: {}", savedBook.getId());
         return bookMapper.toResponse(savedBook);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResult> createBooks(List<BookRequest> requests, long offset) {
+        log.debug("Bulk creating {} books starting at feed offset {}", requests.size(), offset);
+        
+        List<BulkItemResult> results = UniqueKeyImport.run(requests, offset, validator, transactions,
+                new UniqueKeyImport.Target<BookRequest, Book>() {
+                    @Override
+                    public String keyName() {
+                        return "ISBN";
+                    }
+
+                    @Override
+                    public String key(BookRequest request) {
+                        return request.getIsbn();
+                    }
+
+                    @Override
+                    public Set<String> findExistingKeys(Set<String> isbns) {
+                        return bookRepository.findExistingIsbns(isbns);
+                    }
+
+                    @Override
+                    public String existsMessage(String isbn) {
+                        return "Book with ISBN " + isbn + " already exists";
+                    }
+
+                    @Override
+                    public Book toEntity(BookRequest request) {
+                        return bookMapper.toEntity(request);
+                    }
+
+                    @Override
+                    public void saveAll(List<Book> books) {
+                        // Sequence IDs are assigned up front, so the inserts go out as JDBC batches
+                        bookRepository.saveAll(books);
+                        bookCopyRepository.saveAll(books.stream().flatMap(book -> newCopies(book).stream()).toList());
+                        bookRepository.flush();
+                        entityManager.clear();
+                    }
+
+                    @Override
+                    public Long id(Book book) {
+                        return book.getId();
+                    }
+
+                    @Override
+                    public void created(Book book) {
+                        eventPublisher.publishEvent(BookChangedEvent.created(book.getId(), book.getTitle(), book.getAuthor()));
+                    }
+                });
+        
+        log.info("Bulk created {} of {} books starting at feed offset {}",
+                results.stream().filter(result -> result.getStatus() == BulkItemResult.Status.CREATED).count(),
+                requests.size(), offset);
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponse> getAllBooks() {
-        log.debug("Fetching all books");
+    public CursorPage<BookResponse> getAllBooks(Long cursor, int size) {
+        log.debug("Fetching books after cursor: {} with page size: {}", cursor, size);
         
-        List<Book> books = bookRepository.findAll();
-        return books.stream()
+        // Fetch one extra row so we know whether another page exists
+        List<BookResponse> books = bookRepository
+                .findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(size + 1))
+                .stream()
                 .map(bookMapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+        return CursorPage.of(books, size, BookResponse::getId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public CursorPage<Book> getBookRows(Long cursor, int size) {
+        log.debug("Fetching book rows after cursor: {} with page size: {}", cursor, size);
+        
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(size + 1));
+        return CursorPage.of(books, size, Book::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookResponse> consumer) {
+        streamAllBookRows(book -> consumer.accept(bookMapper.toResponse(book)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBookRows(Consumer<Book> consumer) {
+        log.debug("Streaming all books");
+        
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                // Detach so the persistence context does not grow with the catalog
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Override
+    // Cache hits must not open a transaction; a miss runs in the repository's own
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BookResponse getBookById(Long id) {
         log.debug("Fetching book with ID: {}", id);
         
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
-        
-        return bookMapper.toResponse(book);
+        return bookCache.get(id, () -> {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+            return bookMapper.toResponse(book);
+        });
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
     public BookResponse updateBook(Long id, BookRequest request) {
         log.debug("Updating book with ID: {}", id);
         
@@ -80,12 +224,14 @@ public class BookServiceImpl implements BookService {
         
         bookMapper.updateEntity(existingBook, request);
         Book updatedBook = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(updatedBook.getId(), updatedBook.getTitle(), updatedBook.getAuthor()));
         
         log.info("Book updated successfully with ID: {}", updatedBook.getId());
         return bookMapper.toResponse(updatedBook);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
     public void deleteBook(Long id) {
         log.debug("Deleting book with ID: {}", id);
         
@@ -93,45 +239,264 @@ public class BookServiceImpl implements BookService {
             throw new BookNotFoundException("Book not found with ID: " + id);
         }
         
+        loanRepository.deleteByBookId(id);
+        holdRepository.deleteByBookId(id);
+        bookCopyRepository.deleteByBookId(id);
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
         log.info("Book deleted successfully with ID: {}", id);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#bookId")
     public void borrowBook(Long bookId, Long memberId) {
         log.debug("Processing borrow request for book ID: {} by member ID: {}", bookId, memberId);
         
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + bookId));
-        
-        if (!memberRepository.existsById(memberId)) {
-            throw new MemberNotFoundException("Member not found with ID: " + memberId);
-        }
+        checkMayBorrow(memberId);
         
-        if (book.getIsBorrowed()) {
-            throw new BookAlreadyBorrowedException("Book with ID " + bookId + " is already borrowed");
+        // Single conditional update on the title's counter; only look further when no copy was free
+        if (bookRepository.takeCopies(List.of(bookId)) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new BookNotFoundException("Book not found with ID: " + bookId);
+            }
+            throw new BookAlreadyBorrowedException("All copies of book with ID " + bookId + " are borrowed");
         }
         
-        book.setIsBorrowed(true);
-        bookRepository.save(book);
+        BookCopyRepository.FreeCopy copy = claimCopies(List.of(bookId)).get(bookId);
+        Instant now = Instant.now();
+        Loan loan = new Loan(
+            null,
+            bookRepository.getReferenceById(bookId),
+            bookCopyRepository.getReferenceById(copy.getCopyId()),
+            memberRepository.getReferenceById(memberId),
+            now,
+            now.plus(Loan.DEFAULT_LOAN_PERIOD),
+            null,
+            null,
+            BigDecimal.ZERO,
+            null
+        );
+        loanRepository.save(loan);
+        eventPublisher.publishEvent(BookCirculationEvent.borrowed(bookId, memberId, copy.getFreeCopies().intValue() - 1,
+                copy.getBookVersion(), loan.getId(), now));
         
-        log.info("Book with ID: {} successfully borrowed by member ID: {}", bookId, memberId);
+        log.info("Copy ID: {} of book ID: {} successfully borrowed by member ID: {}", copy.getCopyId(), bookId, memberId);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#bookId")
     public void returnBook(Long bookId) {
         log.debug("Processing return request for book ID: {}", bookId);
         
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + bookId));
-        
-        if (!book.getIsBorrowed()) {
+        List<BookRepository.CirculationState> state = bookRepository.lockCirculationState(List.of(bookId));
+        if (state.isEmpty()) {
+            throw new BookNotFoundException("Book not found with ID: " + bookId);
+        }
+        int available = state.get(0).getAvailableCopies();
+        long version = state.get(0).getVersion();
+        if (available >= state.get(0).getTotalCopies()) {
             throw new BookNotBorrowedException("Book with ID " + bookId + " is not currently borrowed");
         }
         
-        book.setIsBorrowed(false);
-        bookRepository.save(book);
+        Instant now = Instant.now();
+        Map<Long, Long> loanIds = returnCopies(List.of(bookId), now);
+        eventPublisher.publishEvent(BookCirculationEvent.returned(bookId, available + 1, version + 1,
+                loanIds.get(bookId), now));
+        promoteHolds(List.of(bookId));
         
         log.info("Book with ID: {} successfully returned", bookId);
     }
+
+    // Cached books are evicted after commit by BookCacheEvictionListener
+    @Override
+    public BatchCirculationResponse borrowBooks(Long memberId, List<Long> bookIds, BatchMode mode) {
+        log.debug("Processing batch borrow of {} books by member ID: {}", bookIds.size(), memberId);
+        
+        checkMayBorrow(memberId);
+        
+        BatchCirculationResponse response = processBatch(bookIds, mode, memberId, (claimed, now) -> {
+            bookRepository.takeCopies(claimed);
+            List<Long> copyIds = claimCopies(claimed).values().stream()
+                    .map(BookCopyRepository.FreeCopy::getCopyId)
+                    .toList();
+            loanRepository.openLoans(copyIds, memberId, now, now.plus(Loan.DEFAULT_LOAN_PERIOD));
+            // The bulk insert returns no keys; read them back for the circulation events
+            return loanRepository.findOpenedLoans(memberId, now).stream()
+                    .collect(Collectors.toMap(LoanRepository.OpenedLoan::getBookId, LoanRepository.OpenedLoan::getId, Math::max));
+        });
+        
+        log.info("Batch borrow by member ID: {} borrowed {} of {} books", memberId, response.getSucceeded(), bookIds.size());
+        return response;
+    }
+
+    @Override
+    public BatchCirculationResponse returnBooks(List<Long> bookIds, BatchMode mode) {
+        log.debug("Processing batch return of {} books", bookIds.size());
+        
+        BatchCirculationResponse response = processBatch(bookIds, mode, null, this::returnCopies);
+        promoteHolds(response.getResults().stream()
+                .filter(CirculationResult::isSucceeded)
+                .map(CirculationResult::getBookId)
+                .toList());
+        
+        log.info("Batch return returned {} of {} books", response.getSucceeded(), bookIds.size());
+        return response;
+    }
+
+    /**
+     * Rejects borrowing by unknown members and by members whose fine balance
+     * is over the limit, with one primary-key lookup of the maintained balance.
+     */
+    private void checkMayBorrow(Long memberId) {
+        BigDecimal balance = memberRepository.findFineBalanceById(memberId)
+                .orElseThrow(() -> new MemberNotFoundException("Member not found with ID: " + memberId));
+        if (balance.compareTo(finesProperties.getBorrowLimit()) > 0) {
+            throw new FineBalanceExceededException("Member with ID " + memberId + " owes " + balance
+                    + " in fines, over the borrowing limit of " + finesProperties.getBorrowLimit());
+        }
+    }
+
+    /**
+     * Lends each just-returned book with a waiting hold to the first member in
+     * its queue. Callers hold the books' row locks, which placing and
+     * cancelling holds take as well, so the queue heads cannot change meanwhile.
+     */
+    private void promoteHolds(List<Long> returnedIds) {
+        if (returnedIds.isEmpty()) {
+            return;
+        }
+        List<HoldRepository.QueueEntry> heads = holdRepository.findQueueHeads(returnedIds);
+        if (heads.isEmpty()) {
+            return;
+        }
+        
+        List<Long> headBookIds = heads.stream().map(HoldRepository.QueueEntry::getBookId).toList();
+        bookRepository.takeCopies(headBookIds);
+        Map<Long, BookCopyRepository.FreeCopy> copies = claimCopies(headBookIds);
+        Instant now = Instant.now();
+        Map<Long, Loan> loans = new HashMap<>();
+        for (HoldRepository.QueueEntry head : heads) {
+            Loan loan = new Loan(
+                null,
+                bookRepository.getReferenceById(head.getBookId()),
+                bookCopyRepository.getReferenceById(copies.get(head.getBookId()).getCopyId()),
+                memberRepository.getReferenceById(head.getMemberId()),
+                now,
+                now.plus(Loan.DEFAULT_LOAN_PERIOD),
+                null,
+                null,
+                BigDecimal.ZERO,
+                null
+            );
+            loanRepository.save(loan);
+            loans.put(head.getBookId(), loan);
+        }
+        holdRepository.deleteByIdIn(heads.stream().map(HoldRepository.QueueEntry::getId).toList());
+        
+        for (HoldRepository.QueueEntry head : heads) {
+            BookCopyRepository.FreeCopy copy = copies.get(head.getBookId());
+            eventPublisher.publishEvent(BookCirculationEvent.borrowed(head.getBookId(), head.getMemberId(),
+                    copy.getFreeCopies().intValue() - 1, copy.getBookVersion(), loans.get(head.getBookId()).getId(), now));
+            eventPublisher.publishEvent(HoldChangedEvent.promoted(head.getBookId(), head.getMemberId(), head.getId()));
+            log.info("Book with ID: {} lent to member ID: {} from the hold queue", head.getBookId(), head.getMemberId());
+        }
+    }
+
+    /**
+     * Marks the lowest-numbered free copy of each title borrowed. Callers have
+     * already taken one copy off each title's counter, which also row-locks the titles.
+     */
+    private Map<Long, BookCopyRepository.FreeCopy> claimCopies(Collection<Long> bookIds) {
+        List<BookCopyRepository.FreeCopy> copies = bookCopyRepository.findFirstFreeCopies(bookIds);
+        bookCopyRepository.markAllBorrowed(copies.stream().map(BookCopyRepository.FreeCopy::getCopyId).toList());
+        return copies.stream().collect(Collectors.toMap(BookCopyRepository.FreeCopy::getBookId, Function.identity()));
+    }
+
+    /**
+     * Closes the oldest active loan of each title and puts its copy back on the
+     * shelf. Callers hold the titles' row locks and have checked a copy is out.
+     * Returns the closed loan IDs by book ID.
+     */
+    private Map<Long, Long> returnCopies(List<Long> bookIds, Instant returnedAt) {
+        List<LoanRepository.ActiveLoan> loans = loanRepository.findOldestActiveLoans(bookIds);
+        loanRepository.closeLoans(loans.stream().map(LoanRepository.ActiveLoan::getId).toList(), returnedAt);
+        bookCopyRepository.markAllReturned(loans.stream().map(LoanRepository.ActiveLoan::getCopyId).toList());
+        bookRepository.releaseCopies(bookIds);
+        return loans.stream().collect(Collectors.toMap(LoanRepository.ActiveLoan::getBookId, LoanRepository.ActiveLoan::getId));
+    }
+
+    private static List<BookCopy> newCopies(Book book) {
+        List<BookCopy> copies = new ArrayList<>(book.getTotalCopies());
+        for (int i = 0; i < book.getTotalCopies(); i++) {
+            copies.add(new BookCopy(null, book, BookCopy.Status.AVAILABLE));
+        }
+        return copies;
+    }
+
+    /**
+     * Locks the requested books, works out which of them can lend or take back
+     * a copy and hands those to {@code apply} as one set, with the time to record.
+     * {@code apply} returns the loan IDs it opened or closed by book ID. Results
+     * keep the request order. Borrows when {@code memberId} is given, returns otherwise.
+     */
+    private BatchCirculationResponse processBatch(List<Long> bookIds, BatchMode mode, Long memberId,
+                                                  BiFunction<List<Long>, Instant, Map<Long, Long>> apply) {
+        boolean borrow = memberId != null;
+        CirculationResult[] results = new CirculationResult[bookIds.size()];
+        Set<Long> uniqueIds = new LinkedHashSet<>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            Long bookId = bookIds.get(i);
+            if (!uniqueIds.add(bookId)) {
+                results[i] = new CirculationResult(bookId, CirculationResult.Status.DUPLICATE,
+                        "Book ID " + bookId + " appears more than once in the request");
+            }
+        }
+        
+        Map<Long, BookRepository.CirculationState> stateById = bookRepository.lockCirculationState(uniqueIds).stream()
+                .collect(Collectors.toMap(BookRepository.CirculationState::getId, Function.identity()));
+        
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long bookId = bookIds.get(i);
+            BookRepository.CirculationState state = stateById.get(bookId);
+            if (state == null) {
+                results[i] = new CirculationResult(bookId, CirculationResult.Status.NOT_FOUND,
+                        "Book not found with ID: " + bookId);
+            } else if (borrow && state.getAvailableCopies() == 0) {
+                results[i] = new CirculationResult(bookId, CirculationResult.Status.ALREADY_BORROWED,
+                        "All copies of book with ID " + bookId + " are borrowed");
+            } else if (!borrow && state.getAvailableCopies() >= state.getTotalCopies()) {
+                results[i] = new CirculationResult(bookId, CirculationResult.Status.NOT_BORROWED,
+                        "Book with ID " + bookId + " is not currently borrowed");
+            } else {
+                claimed.add(bookId);
+            }
+        }
+        
+        boolean rejected = mode == BatchMode.ALL_OR_NOTHING && claimed.size() < bookIds.size();
+        Instant now = Instant.now();
+        Map<Long, Long> loanIds = !claimed.isEmpty() && !rejected ? apply.apply(claimed, now) : Map.of();
+        
+        CirculationResult.Status done = borrow ? CirculationResult.Status.BORROWED : CirculationResult.Status.RETURNED;
+        for (int i = 0; i < bookIds.size(); i++) {
+            if (results[i] == null) {
+                Long bookId = bookIds.get(i);
+                if (rejected) {
+                    results[i] = new CirculationResult(bookId, CirculationResult.Status.SKIPPED,
+                            "Not processed because other books in the batch failed");
+                } else {
+                    results[i] = new CirculationResult(bookId, done, null);
+                    // apply changed each title's counters, and so its version, exactly once
+                    BookRepository.CirculationState state = stateById.get(bookId);
+                    int left = state.getAvailableCopies() + (borrow ? -1 : 1);
+                    eventPublisher.publishEvent(new BookCirculationEvent(bookId, borrow, memberId, left,
+                            state.getVersion() + 1, loanIds.get(bookId), now));
+                }
+            }
+        }
+        return BatchCirculationResponse.of(mode, List.of(results));
+    }
 }
@@ -0,0 +1,116 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.config.ChangeFeedProperties;
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.exception.ChangeFeedExpiredException;
+import com.springbooks.library.model.entity.ChangeLogEntry;
+import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.ChangeResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.MemberResponse;
+import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.repository.ChangeLogRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.ChangeFeedService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Transactional
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    @Autowired ChangeLogRepository changeLogRepository;
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired BookMapper bookMapper;
+    @Autowired ChangeFeedProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ChangeResponse> getChanges(long since, int size) {
+        log.debug("Fetching changes after sequence: {} with page size: {}", since, size);
+        
+        CursorPage<ChangeLogEntry> entries = CursorPage.of(
+                changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(size + 1)),
+                size, ChangeLogEntry::getSeq);
+        // Checked after the read, so a compaction that commits in between is noticed
+        assertCursorAvailable(since);
+        
+        Set<Long> bookIds = new HashSet<>();
+        Set<Long> memberIds = new HashSet<>();
+        for (ChangeLogEntry entry : entries.getContent()) {
+            (entry.getEntityType() == ChangeLogEntry.EntityType.BOOK ? bookIds : memberIds).add(entry.getEntityId());
+        }
+        Map<Long, BookResponse> books = bookIds.isEmpty() ? Map.of() : bookRepository.findAllById(bookIds).stream()
+                .map(bookMapper::toResponse)
+                .collect(Collectors.toMap(BookResponse::getId, Function.identity()));
+        Map<Long, MemberResponse> members = memberIds.isEmpty() ? Map.of() : memberRepository.findResponsesByIdIn(memberIds).stream()
+                .collect(Collectors.toMap(MemberResponse::getId, Function.identity()));
+        
+        List<ChangeResponse> changes = entries.getContent().stream()
+                .map(entry -> new ChangeResponse(
+                        entry.getSeq(),
+                        entry.getEntityType(),
+                        entry.getEntityId(),
+                        entry.getChangeType(),
+                        entry.getChangedAt(),
+                        entry.getEntityType() == ChangeLogEntry.EntityType.BOOK
+                                ? books.get(entry.getEntityId())
+                                : members.get(entry.getEntityId())))
+                .toList();
+        return new CursorPage<>(changes, changes.size(), entries.getNextCursor(), entries.isHasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLastSeq() {
+        return changeLogRepository.findLastSeq();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void assertCursorAvailable(long since) {
+        long purgedThrough = changeLogRepository.findPurgedThrough();
+        if (since < purgedThrough) {
+            throw new ChangeFeedExpiredException("Changes up to sequence " + purgedThrough
+                    + " have been compacted; copy the catalog again and continue from the current head");
+        }
+    }
+
+    @Override
+    public int compact(Instant now) {
+        log.debug("Compacting change log");
+        
+        int superseded = changeLogRepository.deleteSuperseded(now.minus(properties.getCompactAfter()));
+        int tombstones = 0;
+        Long lastTombstone = changeLogRepository.findLastTombstoneBefore(now.minus(properties.getTombstoneRetention()));
+        if (lastTombstone != null) {
+            tombstones = changeLogRepository.deleteTombstonesThrough(lastTombstone);
+            // Last, so the head row is locked against writers only briefly
+            changeLogRepository.advancePurgedThrough(lastTombstone);
+        }
+        
+        if (superseded + tombstones > 0) {
+            log.info("Change log compacted: {} superseded entries and {} expired deletions removed", superseded, tombstones);
+        }
+        return superseded + tombstones;
+    }
+}
@@ -0,0 +1,73 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.config.FinesProperties;
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.exception.MemberNotFoundException;
+import com.springbooks.library.model.response.FineBalanceResponse;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.FineService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Member fine balances. Balances live on the member row and are only changed
+ * by set-based updates: the nightly settlement adds each chunk's charges and
+ * payments take them off, so reading a balance, also when borrowing, is a
+ * primary-key lookup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Transactional
+public class FineServiceImpl implements FineService {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired FinesProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public FineBalanceResponse getBalance(Long memberId) {
+        log.debug("Fetching fine balance for member ID: {}", memberId);
+        
+        BigDecimal balance = memberRepository.findFineBalanceById(memberId)
+                .orElseThrow(() -> new MemberNotFoundException("Member not found with ID: " + memberId));
+        return new FineBalanceResponse(memberId, balance, balance.compareTo(properties.getBorrowLimit()) > 0);
+    }
+
+    @Override
+    public FineBalanceResponse payFines(Long memberId, BigDecimal amount) {
+        log.debug("Recording fine payment of {} by member ID: {}", amount, memberId);
+        
+        if (memberRepository.payFines(memberId, amount) == 0) {
+            throw new MemberNotFoundException("Member not found with ID: " + memberId);
+        }
+        FineBalanceResponse response = getBalance(memberId);
+        
+        log.info("Fine payment by member ID: {} recorded, balance now {}", memberId, response.getBalance());
+        return response;
+    }
+
+    @Override
+    public int settleChunk(LocalDate day, long fromMemberId, long toMemberId) {
+        log.debug("Settling fines for {} of member IDs {} to {}", day, fromMemberId, toMemberId);
+        
+        Instant dayStart = day.atStartOfDay(properties.getZone()).toInstant();
+        // Balances first: both statements pick the same loans, and charging the loans takes them out of the pick
+        memberRepository.accrueFines(day, dayStart, fromMemberId, toMemberId,
+                properties.getDailyRate(), properties.getMaxPerLoan());
+        return loanRepository.accrueFines(day, dayStart, fromMemberId, toMemberId,
+                properties.getDailyRate(), properties.getMaxPerLoan());
+    }
+}
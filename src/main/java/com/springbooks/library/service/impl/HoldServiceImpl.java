@@ -0,0 +1,173 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.HoldChangedEvent;
+import com.springbooks.library.exception.BookNotBorrowedException;
+import com.springbooks.library.exception.BookNotFoundException;
+import com.springbooks.library.exception.DuplicateResourceException;
+import com.springbooks.library.exception.HoldNotFoundException;
+import com.springbooks.library.exception.MemberNotFoundException;
+import com.springbooks.library.holds.HoldQueueIndex;
+import com.springbooks.library.model.entity.Hold;
+import com.springbooks.library.model.response.HoldResponse;
+import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.repository.HoldRepository;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.HoldService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places and cancels holds on borrowed books. Queue positions are answered
+ * from {@link HoldQueueIndex}, which is loaded at startup and follows committed
+ * hold changes, so members polling their position do not touch the database.
+ * Holds are turned into loans by {@code BookServiceImpl} when a book is returned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Transactional
+public class HoldServiceImpl implements HoldService {
+
+    @Autowired HoldRepository holdRepository;
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired ApplicationEventPublisher eventPublisher;
+
+    private final HoldQueueIndex index = new HoldQueueIndex();
+
+    // Changes committed while the index is being loaded, replayed once it is; guarded by itself
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+    private boolean loading;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        log.info("Building hold queue index");
+        
+        synchronized (pendingChanges) {
+            loading = true;
+        }
+        List<HoldRepository.QueueEntry> entries = holdRepository.findAllQueueEntries();
+        entries.forEach(entry -> index.add(entry.getBookId(), entry.getId(), entry.getMemberId()));
+        
+        // The query may or may not have seen these; adds and removes are idempotent, so replaying is safe either way
+        synchronized (pendingChanges) {
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges.clear();
+            loading = false;
+        }
+        
+        log.info("Hold queue index built with {} holds on {} books", entries.size(), index.queuedBookCount());
+    }
+
+    @TransactionalEventListener
+    public void onHoldChanged(HoldChangedEvent event) {
+        switch (event.type()) {
+            case PLACED -> apply(() -> index.add(event.bookId(), event.holdId(), event.memberId()));
+            case CANCELLED, PROMOTED -> apply(() -> index.remove(event.bookId(), event.memberId()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.ChangeType.DELETED) {
+            apply(() -> index.removeBook(event.bookId()));
+        }
+    }
+
+    /**
+     * Applies a committed change, or holds it back while the index is loading so
+     * the load cannot re-add a hold that was cancelled meanwhile.
+     */
+    private void apply(Runnable change) {
+        synchronized (pendingChanges) {
+            if (loading) {
+                pendingChanges.add(change);
+            } else {
+                change.run();
+            }
+        }
+    }
+
+    @Override
+    public HoldResponse placeHold(Long bookId, Long memberId) {
+        log.debug("Placing hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        if (!memberRepository.existsById(memberId)) {
+            throw new MemberNotFoundException("Member not found with ID: " + memberId);
+        }
+        
+        // Row lock on the book serializes this with returns, which serve the queue
+        List<BookRepository.CirculationState> state = bookRepository.lockCirculationState(List.of(bookId));
+        if (state.isEmpty()) {
+            throw new BookNotFoundException("Book not found with ID: " + bookId);
+        }
+        if (state.get(0).getAvailableCopies() > 0) {
+            throw new BookNotBorrowedException("Book with ID " + bookId + " has a copy available; borrow it instead");
+        }
+        if (loanRepository.existsByBookIdAndMemberIdAndReturnedAtIsNull(bookId, memberId)) {
+            throw new DuplicateResourceException("Member with ID " + memberId + " already has book with ID " + bookId + " on loan");
+        }
+        if (holdRepository.existsByBookIdAndMemberId(bookId, memberId)) {
+            throw new DuplicateResourceException("Member with ID " + memberId + " already holds book with ID " + bookId);
+        }
+        
+        Hold hold = holdRepository.save(new Hold(
+            null,
+            bookRepository.getReferenceById(bookId),
+            memberRepository.getReferenceById(memberId),
+            Instant.now()
+        ));
+        eventPublisher.publishEvent(HoldChangedEvent.placed(bookId, memberId, hold.getId()));
+        
+        // The index only sees the hold after commit; count from the table instead
+        int position = (int) holdRepository.countByBookIdAndIdLessThan(bookId, hold.getId()) + 1;
+        log.info("Hold placed on book ID: {} for member ID: {} at position {}", bookId, memberId, position);
+        return new HoldResponse(bookId, memberId, position, (int) holdRepository.countByBookId(bookId));
+    }
+
+    @Override
+    public void cancelHold(Long bookId, Long memberId) {
+        log.debug("Cancelling hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        // Taken before the delete so a concurrent return cannot promote the hold meanwhile
+        bookRepository.lockCirculationState(List.of(bookId));
+        if (holdRepository.deleteByBookIdAndMemberId(bookId, memberId) == 0) {
+            throw new HoldNotFoundException("No hold on book ID " + bookId + " for member ID " + memberId);
+        }
+        eventPublisher.publishEvent(HoldChangedEvent.cancelled(bookId, memberId));
+        
+        log.info("Hold on book ID: {} for member ID: {} cancelled", bookId, memberId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public HoldResponse getHold(Long bookId, Long memberId) {
+        log.debug("Fetching hold on book ID: {} for member ID: {}", bookId, memberId);
+        
+        int position = index.position(bookId, memberId);
+        if (position == 0) {
+            throw new HoldNotFoundException("No hold on book ID " + bookId + " for member ID " + memberId);
+        }
+        return new HoldResponse(bookId, memberId, position, index.length(bookId));
+    }
+}
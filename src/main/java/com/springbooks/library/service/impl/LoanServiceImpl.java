@@ -0,0 +1,93 @@
+package com.springbooks.library.service.impl;
+
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.event.LoanOverdueEvent;
+import com.springbooks.library.exception.BookNotFoundException;
+import com.springbooks.library.exception.MemberNotFoundException;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.LoanResponse;
+import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.LoanService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Transactional(readOnly = true)
+public class LoanServiceImpl implements LoanService {
+
+    @Autowired LoanRepository loanRepository;
+    @Autowired BookRepository bookRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<LoanResponse> getActiveLoansForMember(Long memberId) {
+        log.debug("Fetching active loans for member ID: {}", memberId);
+        
+        if (!memberRepository.existsById(memberId)) {
+            throw new MemberNotFoundException("Member not found with ID: " + memberId);
+        }
+        
+        return loanRepository.findActiveByMemberId(memberId);
+    }
+
+    @Override
+    public CursorPage<LoanResponse> getLoanHistoryForBook(Long bookId, Long cursor, int size) {
+        log.debug("Fetching loan history for book ID: {} before cursor: {}", bookId, cursor);
+        
+        if (!bookRepository.existsById(bookId)) {
+            throw new BookNotFoundException("Book not found with ID: " + bookId);
+        }
+        
+        // History is newest first, so the cursor walks downwards
+        List<LoanResponse> loans = loanRepository.findHistoryByBookId(
+                bookId, cursor == null ? Long.MAX_VALUE : cursor, Limit.of(size + 1));
+        return CursorPage.of(loans, size, LoanResponse::getId);
+    }
+
+    @Override
+    public CursorPage<LoanResponse> getOverdueLoans(Long cursor, int size) {
+        log.debug("Fetching overdue loans after cursor: {} with page size: {}", cursor, size);
+        
+        // Pages are in due order; a cursor whose loan was deleted with its book starts over
+        Instant afterDueAt = cursor == null
+                ? Instant.EPOCH
+                : loanRepository.findDueAtById(cursor).orElse(Instant.EPOCH);
+        List<LoanResponse> loans = loanRepository.findOverdue(
+                Instant.now(), afterDueAt, cursor == null ? 0L : cursor, Limit.of(size + 1));
+        return CursorPage.of(loans, size, LoanResponse::getId);
+    }
+
+    @Override
+    @Transactional
+    public int markOverdue(Collection<Long> loanIds, Instant now) {
+        log.debug("Flagging overdue loans among {} candidates", loanIds.size());
+        
+        List<LoanRepository.OverdueLoan> loans = loanRepository.lockNewlyOverdue(loanIds, now);
+        if (loans.isEmpty()) {
+            return 0;
+        }
+        
+        loanRepository.markOverdue(loans.stream().map(LoanRepository.OverdueLoan::getId).toList(), now);
+        for (LoanRepository.OverdueLoan loan : loans) {
+            eventPublisher.publishEvent(new LoanOverdueEvent(loan.getId(), loan.getBookId(), loan.getMemberId(), loan.getDueAt()));
+        }
+        return loans.size();
+    }
+}
@@ -1,31 +1,54 @@
 package com.springbooks.library.service.impl;
 
+import com.springbooks.library.config.CacheConfig;
+import com.springbooks.library.config.MetricsConfig;
+import com.springbooks.library.event.MemberChangedEvent;
 import com.springbooks.library.exception.DuplicateResourceException;
 import com.springbooks.library.exception.MemberNotFoundException;
 import com.springbooks.library.model.entity.Member;
 import com.springbooks.library.model.mapper.MemberMapper;
 import com.springbooks.library.model.request.MemberRequest;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
 import com.springbooks.library.model.response.MemberResponse;
 import com.springbooks.library.repository.MemberRepository;
 import com.springbooks.library.service.MemberService;
+import com.springbooks.library.util.UniqueKeyImport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional
 public class MemberServiceImpl implements MemberService {
 
     @Autowired MemberRepository memberRepository;
     @Autowired MemberMapper memberMapper;
+    @Autowired Validator validator;
+    @Autowired ApplicationEventPublisher eventPublisher;
+    @Autowired TransactionOperations transactions;
+    @PersistenceContext EntityManager entityManager;
 
     
     @Override
@@ -38,26 +61,95 @@ public class MemberServiceImpl implements MemberService {
         
         Member member = memberMapper.toEntity(request);
         Member savedMember = memberRepository.save(member);
+        eventPublisher.publishEvent(MemberChangedEvent.created(savedMember.getId()));
         
         log.info("Member registered successfully with ID: {}", savedMember.getId());
         return memberMapper.toResponse(savedMember);
     }
 
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResult> registerMembers(List<MemberRequest> requests, long offset) {
+        log.debug("Bulk registering {} members starting at feed offset {}", requests.size(), offset);
+        
+        List<BulkItemResult> results = UniqueKeyImport.run(requests, offset, validator, transactions,
+                new UniqueKeyImport.Target<MemberRequest, Member>() {
+                    @Override
+                    public String keyName() {
+                        return "Email";
+                    }
+
+                    @Override
+                    public String key(MemberRequest request) {
+                        return request.getEmail();
+                    }
+
+                    @Override
+                    public Set<String> findExistingKeys(Set<String> emails) {
+                        return memberRepository.findExistingEmails(emails);
+                    }
+
+                    @Override
+                    public String existsMessage(String email) {
+                        return "Member with email " + email + " already exists";
+                    }
+
+                    @Override
+                    public Member toEntity(MemberRequest request) {
+                        return memberMapper.toEntity(request);
+                    }
+
+                    @Override
+                    public void saveAll(List<Member> members) {
+                        // Sequence IDs are assigned up front, so the inserts go out as JDBC batches
+                        memberRepository.saveAll(members);
+                        memberRepository.flush();
+                        entityManager.clear();
+                    }
+
+                    @Override
+                    public Long id(Member member) {
+                        return member.getId();
+                    }
+
+                    @Override
+                    public void created(Member member) {
+                        eventPublisher.publishEvent(MemberChangedEvent.created(member.getId()));
+                    }
+                });
+        
+        log.info("Bulk registered {} of {} members starting at feed offset {}",
+                results.stream().filter(result -> result.getStatus() == BulkItemResult.Status.CREATED).count(),
+                requests.size(), offset);
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<MemberResponse> getAllMembers() {
-        log.debug("Fetching all members");
+    public CursorPage<MemberResponse> getAllMembers(Long cursor, int size) {
+        log.debug("Fetching members after cursor: {} with page size: {}", cursor, size);
         
-        List<Member> members = memberRepository.findAll();
-        return members.stream()
-                .map(memberMapper::toResponse)
-                .collect(Collectors.toList());
+        // Fetch one extra row so we know whether another page exists
+        List<MemberResponse> members = memberRepository.findPageAfter(
+                cursor == null ? 0L : cursor, Limit.of(size + 1));
+        return CursorPage.of(members, size, MemberResponse::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllMembers(Consumer<MemberResponse> consumer) {
+        log.debug("Streaming all members");
+        
+        try (Stream<MemberResponse> members = memberRepository.streamAll()) {
+            members.forEach(consumer);
+        }
     }
 
         
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.MEMBERS, key = "#id", sync = true)
     public MemberResponse getMemberById(Long id) {
         log.debug("Fetching member with ID: {}", id);
         
@@ -68,6 +160,7 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#id")
     public MemberResponse updateMember(Long id, MemberRequest request) {
         log.debug("Updating member with ID: {}", id);
         
@@ -81,6 +174,7 @@ public class MemberServiceImpl implements MemberService {
         
         memberMapper.updateEntity(existingMember, request);
         Member updatedMember = memberRepository.save(existingMember);
+        eventPublisher.publishEvent(MemberChangedEvent.updated(updatedMember.getId()));
         
         log.info("Member updated successfully with ID: {}", updatedMember.getId());
         return memberMapper.toResponse(updatedMember);
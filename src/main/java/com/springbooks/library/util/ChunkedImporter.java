@@ -0,0 +1,44 @@
+package com.springbooks.library.util;
+
+import com.springbooks.library.model.response.BulkItemResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Feeds a (possibly unbounded) sequence of records to an importer in fixed-size
+ * chunks, so each chunk is validated, deduplicated and inserted in its own
+ * transaction and never more than one chunk is held in memory.
+ */
+public final class ChunkedImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private ChunkedImporter() {
+    }
+
+    /**
+     * @param importer receives a chunk and the feed offset of its first record
+     * @param sink     receives every per-record result in feed order
+     */
+    public static <T> void importAll(Iterator<T> records, int chunkSize,
+                                     BiFunction<List<T>, Long, List<BulkItemResult>> importer,
+                                     Consumer<BulkItemResult> sink) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        long offset = 0;
+        while (records.hasNext()) {
+            chunk.add(records.next());
+            if (chunk.size() == chunkSize) {
+                importer.apply(chunk, offset).forEach(sink);
+                offset += chunk.size();
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importer.apply(chunk, offset).forEach(sink);
+        }
+    }
+}
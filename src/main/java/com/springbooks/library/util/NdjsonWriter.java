@@ -0,0 +1,45 @@
+package com.springbooks.library.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes one JSON document per line (application/x-ndjson) to an output stream,
+ * flushing every {@link #FLUSH_INTERVAL} rows so clients start receiving data
+ * before the export finishes.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final ObjectWriter writer;
+    private final OutputStream outputStream;
+    private long written;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream outputStream) {
+        this.writer = objectMapper.writerFor(type);
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(value));
+            outputStream.write('\n');
+            if (++written % FLUSH_INTERVAL == 0) {
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+}
@@ -0,0 +1,135 @@
+package com.springbooks.library.util;
+
+import com.springbooks.library.model.response.BulkItemResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports one {@link ChunkedImporter} chunk of records that carry a unique
+ * natural key. Invalid records and keys repeated within the chunk or already
+ * stored are reported per record; the rest are saved in one batch.
+ * <p>
+ * The stored-key lookup and the save run in one transaction, but a concurrent
+ * import can still store one of the keys in between and fail the save on the
+ * unique constraint, or time out on H2 while waiting for the other import's
+ * uncommitted row. The chunk is then rolled back and run once more, when the
+ * lookup sees the other import's rows and reports them as duplicates instead
+ * of failing the whole chunk.
+ */
+@Slf4j
+public final class UniqueKeyImport {
+
+    private UniqueKeyImport() {
+    }
+
+    /**
+     * How one kind of record is keyed, looked up and stored.
+     */
+    public interface Target<R, E> {
+
+        /** Name of the key in error messages, e.g. {@code ISBN}. */
+        String keyName();
+
+        String key(R record);
+
+        Set<String> findExistingKeys(Set<String> keys);
+
+        String existsMessage(String key);
+
+        E toEntity(R record);
+
+        /**
+         * Saves the entities and flushes, so a key taken meanwhile fails here
+         * rather than at commit.
+         */
+        void saveAll(List<E> entities);
+
+        Long id(E entity);
+
+        /** Called for every saved entity, inside the transaction that saved it. */
+        void created(E entity);
+    }
+
+    /**
+     * Must not be called inside a transaction, or the retry would run in the
+     * one the failed save marked rollback-only.
+     *
+     * @param offset feed offset of the first record
+     * @return one result per record, in chunk order
+     */
+    public static <R, E> List<BulkItemResult> run(List<R> records, long offset, Validator validator,
+                                                  TransactionOperations transactions, Target<R, E> target) {
+        BulkItemResult[] results = new BulkItemResult[records.size()];
+        Set<String> candidateKeys = new HashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            R record = records.get(i);
+            String key = target.key(record);
+            Set<ConstraintViolation<R>> violations = validator.validate(record);
+            if (!violations.isEmpty()) {
+                String error = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[i] = BulkItemResult.invalid(offset + i, key, error);
+            } else if (!candidateKeys.add(key)) {
+                results[i] = BulkItemResult.duplicate(offset + i, key,
+                        target.keyName() + " " + key + " appears more than once in the request");
+            }
+        }
+
+        try {
+            return save(records, offset, results.clone(), candidateKeys, transactions, target);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            log.warn("Chunk at feed offset {} collided with a concurrent import on {}, retrying once",
+                    offset, target.keyName());
+            return save(records, offset, results, candidateKeys, transactions, target);
+        }
+    }
+
+    private static <R, E> List<BulkItemResult> save(List<R> records, long offset, BulkItemResult[] results,
+                                                    Set<String> candidateKeys, TransactionOperations transactions,
+                                                    Target<R, E> target) {
+        return transactions.execute(status -> {
+            // One set-based lookup for the whole chunk instead of an exists query per row
+            Set<String> existingKeys = candidateKeys.isEmpty()
+                    ? Set.of()
+                    : target.findExistingKeys(candidateKeys);
+
+            // Entities are built per attempt, since a failed save has already assigned IDs
+            List<E> entities = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                String key = target.key(records.get(i));
+                if (existingKeys.contains(key)) {
+                    results[i] = BulkItemResult.duplicate(offset + i, key, target.existsMessage(key));
+                } else {
+                    entities.add(target.toEntity(records.get(i)));
+                    positions.add(i);
+                }
+            }
+
+            target.saveAll(entities);
+
+            for (int j = 0; j < entities.size(); j++) {
+                E entity = entities.get(j);
+                int i = positions.get(j);
+                results[i] = BulkItemResult.created(offset + i, target.key(records.get(i)), target.id(entity));
+                target.created(entity);
+            }
+            return List.of(results);
+        });
+    }
+}
@@ -2,20 +2,49 @@
 -- This data will be loaded automatically when the application starts
 
 -- Insert sample books
-INSERT INTO books (title, author, isbn, is_borrowed) VALUES
-('The Great Gatsby', 'F. Scott Fitzgerald', '9780743273565', false),
-('To Kill a Mockingbird', 'Harper Lee', '9780061120084', false),
-('1984', 'George Orwell', '9780451524935', true),
-('Pride and Prejudice', 'Jane Austen', '9780141439518', false),
-('The Catcher in the Rye', 'J.D. Salinger', '9780316769488', false),
-('Lord of the Flies', 'William Golding', '9780571056866', true),
-('Animal Farm', 'George Orwell', '9780451526342', false),
-('Brave New World', 'Aldous Huxley', '9780060850524', false);
+INSERT INTO books (id, title, author, isbn, is_borrowed, total_copies, available_copies, version) VALUES
+(1, 'The Great Gatsby', 'F. Scott Fitzgerald', '9780743273565', false, 3, 3, 0),
+(2, 'To Kill a Mockingbird', 'Harper Lee', '9780061120084', false, 1, 1, 0),
+(3, '1984', 'George Orwell', '9780451524935', true, 1, 0, 0),
+(4, 'Pride and Prejudice', 'Jane Austen', '9780141439518', false, 1, 1, 0),
+(5, 'The Catcher in the Rye', 'J.D. Salinger', '9780316769488', false, 1, 1, 0),
+(6, 'Lord of the Flies', 'William Golding', '9780571056866', true, 1, 0, 0),
+(7, 'Animal Farm', 'George Orwell', '9780451526342', false, 1, 1, 0),
+(8, 'Brave New World', 'Aldous Huxley', '9780060850524', false, 1, 1, 0);
+
+-- Insert the physical copies of each book
+INSERT INTO book_copies (id, book_id, status) VALUES
+(1, 1, 'AVAILABLE'),
+(2, 1, 'AVAILABLE'),
+(3, 1, 'AVAILABLE'),
+(4, 2, 'AVAILABLE'),
+(5, 3, 'BORROWED'),
+(6, 4, 'AVAILABLE'),
+(7, 5, 'AVAILABLE'),
+(8, 6, 'BORROWED'),
+(9, 7, 'AVAILABLE'),
+(10, 8, 'AVAILABLE');
+
+-- Book, copy and member IDs come from pooled sequences (allocation size 50); move them
+-- past the explicit IDs so the first block Hibernate reserves cannot overlap them
+ALTER SEQUENCE books_seq RESTART WITH 101;
+ALTER SEQUENCE book_copies_seq RESTART WITH 101;
 
 -- Insert sample members
-INSERT INTO members (name, email) VALUES
-('John Doe', 'john.doe@example.com'),
-('Jane Smith', 'jane.smith@example.com'),
-('Bob Johnson', 'bob.johnson@example.com'),
-('Alice Brown', 'alice.brown@example.com'),
-('Charlie Wilson', 'charlie.wilson@example.com');
+INSERT INTO members (id, name, email, fine_balance) VALUES
+(1, 'John Doe', 'john.doe@example.com', 0),
+(2, 'Jane Smith', 'jane.smith@example.com', 0),
+(3, 'Bob Johnson', 'bob.johnson@example.com', 0),
+(4, 'Alice Brown', 'alice.brown@example.com', 0),
+(5, 'Charlie Wilson', 'charlie.wilson@example.com', 0);
+
+ALTER SEQUENCE members_seq RESTART WITH 101;
+
+-- Insert loans for the books that start out borrowed
+INSERT INTO loans (book_id, copy_id, member_id, borrowed_at, due_at, returned_at, fine_amount) VALUES
+(3, 5, 1, DATEADD('DAY', -3, CURRENT_TIMESTAMP), DATEADD('DAY', 11, CURRENT_TIMESTAMP), NULL, 0),
+(6, 8, 2, DATEADD('DAY', -20, CURRENT_TIMESTAMP), DATEADD('DAY', -6, CURRENT_TIMESTAMP), NULL, 0);
+
+
+-- Change feed starts empty; the seed data above is the initial copy
+INSERT INTO change_log_head (id, last_seq, purged_through) VALUES (1, 0, 0);
@@ -0,0 +1,43 @@
+-- Schema for the prod profile; mirrors the JPA entities (ddl-auto is validate there).
+
+CREATE SEQUENCE books_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE members_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE books (
+    id          BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    author      VARCHAR(255) NOT NULL,
+    isbn        VARCHAR(255) NOT NULL,
+    is_borrowed BOOLEAN      NOT NULL,
+    version     BIGINT       NOT NULL,
+    CONSTRAINT pk_books PRIMARY KEY (id),
+    CONSTRAINT uk_books_isbn UNIQUE (isbn)
+);
+
+-- Available/borrowed books in id order
+CREATE INDEX idx_books_is_borrowed ON books (is_borrowed, id);
+
+CREATE TABLE members (
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_members PRIMARY KEY (id),
+    CONSTRAINT uk_members_email UNIQUE (email)
+);
+
+CREATE TABLE loans (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id     BIGINT                   NOT NULL,
+    member_id   BIGINT                   NOT NULL,
+    borrowed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    due_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    returned_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_loans PRIMARY KEY (id),
+    CONSTRAINT fk_loans_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_loans_member FOREIGN KEY (member_id) REFERENCES members (id)
+);
+
+-- Active loans of a member: equality on member_id, "returned_at is null", newest first
+CREATE INDEX idx_loans_member_active ON loans (member_id, returned_at, borrowed_at, book_id, due_at);
+-- Loan history of a book, keyset-paginated on id
+CREATE INDEX idx_loans_book_history ON loans (book_id, id);
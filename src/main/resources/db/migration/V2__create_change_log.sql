@@ -0,0 +1,22 @@
+-- Change feed (GET /api/changes); mirrors ChangeLogEntry and ChangeLogHead.
+
+CREATE TABLE change_log (
+    seq         BIGINT                      NOT NULL,
+    entity_type VARCHAR(16)                 NOT NULL,
+    entity_id   BIGINT                      NOT NULL,
+    change_type VARCHAR(16)                 NOT NULL,
+    changed_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_change_log PRIMARY KEY (seq)
+);
+
+-- Latest entry per entity, used by compaction
+CREATE INDEX idx_change_log_entity ON change_log (entity_type, entity_id, seq);
+
+CREATE TABLE change_log_head (
+    id             INTEGER NOT NULL,
+    last_seq       BIGINT  NOT NULL,
+    purged_through BIGINT  NOT NULL,
+    CONSTRAINT pk_change_log_head PRIMARY KEY (id)
+);
+
+INSERT INTO change_log_head (id, last_seq, purged_through) VALUES (1, 0, 0);
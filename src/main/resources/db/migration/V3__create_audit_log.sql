@@ -0,0 +1,11 @@
+-- Audit trail written by AuditTrail; mirrors AuditRecord.
+
+CREATE TABLE audit_log (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    action      VARCHAR(32)                 NOT NULL,
+    entity_id   BIGINT                      NOT NULL,
+    member_id   BIGINT,
+    principal   VARCHAR(255),
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_audit_log PRIMARY KEY (id)
+);
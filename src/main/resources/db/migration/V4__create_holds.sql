@@ -0,0 +1,15 @@
+-- Hold queues; mirrors Hold.
+
+CREATE TABLE holds (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id   BIGINT                      NOT NULL,
+    member_id BIGINT                      NOT NULL,
+    placed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_holds PRIMARY KEY (id),
+    CONSTRAINT uk_holds_book_member UNIQUE (book_id, member_id),
+    CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_holds_member FOREIGN KEY (member_id) REFERENCES members (id)
+);
+
+-- Queue of a book in arrival order
+CREATE INDEX idx_holds_book_queue ON holds (book_id, id);
@@ -0,0 +1,34 @@
+-- Title/copy split; mirrors Book, BookCopy and Loan. Every existing book
+-- becomes a title with a single copy, and its loans are moved onto that copy.
+
+ALTER TABLE books ADD COLUMN total_copies INTEGER;
+ALTER TABLE books ADD COLUMN available_copies INTEGER;
+UPDATE books SET total_copies = 1, available_copies = CASE WHEN is_borrowed THEN 0 ELSE 1 END;
+ALTER TABLE books ALTER COLUMN total_copies SET NOT NULL;
+ALTER TABLE books ALTER COLUMN available_copies SET NOT NULL;
+
+CREATE SEQUENCE book_copies_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE book_copies (
+    id      BIGINT      NOT NULL,
+    book_id BIGINT      NOT NULL,
+    status  VARCHAR(16) NOT NULL,
+    CONSTRAINT pk_book_copies PRIMARY KEY (id),
+    CONSTRAINT fk_book_copies_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
+
+-- Free copies of a title in ID order
+CREATE INDEX idx_book_copies_free ON book_copies (book_id, status, id);
+
+-- Each draw reserves a whole block of 50, so Hibernate's first block starts past these IDs
+INSERT INTO book_copies (id, book_id, status)
+SELECT NEXT VALUE FOR book_copies_seq, id, CASE WHEN is_borrowed THEN 'BORROWED' ELSE 'AVAILABLE' END
+FROM books;
+
+ALTER TABLE loans ADD COLUMN copy_id BIGINT;
+UPDATE loans SET copy_id = (SELECT c.id FROM book_copies c WHERE c.book_id = loans.book_id);
+ALTER TABLE loans ALTER COLUMN copy_id SET NOT NULL;
+ALTER TABLE loans ADD CONSTRAINT fk_loans_copy FOREIGN KEY (copy_id) REFERENCES book_copies (id);
+
+-- Active loans of a title, oldest first, for returns by title
+CREATE INDEX idx_loans_book_active ON loans (book_id, returned_at, id);
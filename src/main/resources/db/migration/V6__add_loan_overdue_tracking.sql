@@ -0,0 +1,6 @@
+-- Overdue detection; mirrors Loan.overdueAt.
+
+ALTER TABLE loans ADD COLUMN overdue_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Active loans in due order, for the overdue sweeper and the overdue listing
+CREATE INDEX idx_loans_due ON loans (returned_at, due_at, id);
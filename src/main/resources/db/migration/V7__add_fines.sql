@@ -0,0 +1,14 @@
+-- Overdue fines; mirrors Member.fineBalance, Loan.fineAmount, Loan.finedThrough and FineSettlement.
+
+ALTER TABLE members ADD COLUMN fine_balance DECIMAL(10, 2) DEFAULT 0 NOT NULL;
+
+ALTER TABLE loans ADD COLUMN fine_amount DECIMAL(10, 2) DEFAULT 0 NOT NULL;
+ALTER TABLE loans ADD COLUMN fined_through DATE;
+
+-- Fine days the nightly settlement has finished
+CREATE TABLE fine_settlements (
+    fine_date   DATE                        NOT NULL,
+    settled_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    loans_fined BIGINT                      NOT NULL,
+    CONSTRAINT pk_fine_settlements PRIMARY KEY (fine_date)
+);
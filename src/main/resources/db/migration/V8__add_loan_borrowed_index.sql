@@ -0,0 +1,2 @@
+-- Loans in borrow order, for rebuilding the circulation rollups; mirrors Loan.
+CREATE INDEX idx_loans_borrowed ON loans (borrowed_at);
@@ -0,0 +1,99 @@
+package com.springbooks.library.analytics;
+
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CirculationRollupsTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-15T10:30:00Z");
+
+    private CirculationRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        rollups = new CirculationRollups(7, 16);
+    }
+
+    @Test
+    void topBooks_RanksByBorrowsInWindow() {
+        borrow(1L, 10L, NOW, 3);
+        borrow(2L, 10L, NOW.minus(Duration.ofDays(1)), 2);
+        borrow(2L, 11L, NOW, 2);
+        borrow(3L, 11L, NOW.minus(Duration.ofDays(3)), 5);
+
+        assertEquals(List.of(new BorrowCountResponse(3L, 5), new BorrowCountResponse(2L, 4)),
+                rollups.topBooks(NOW, 7, 2));
+        assertEquals(List.of(new BorrowCountResponse(2L, 4), new BorrowCountResponse(1L, 3)),
+                rollups.topBooks(NOW, 2, 10));
+        assertEquals(List.of(new BorrowCountResponse(11L, 7), new BorrowCountResponse(10L, 5)),
+                rollups.topMembers(NOW, 7, 10));
+    }
+
+    @Test
+    void bookBorrows_CountsOnlyDaysInWindow() {
+        borrow(1L, 10L, NOW, 1);
+        borrow(1L, 10L, NOW.minus(Duration.ofDays(6)), 2);
+        borrow(1L, 10L, NOW.minus(Duration.ofDays(7)), 4);
+
+        assertEquals(3, rollups.bookBorrows(1L, NOW, 7));
+        assertEquals(1, rollups.bookBorrows(1L, NOW, 1));
+        assertEquals(3, rollups.memberBorrows(10L, NOW, 30));
+    }
+
+    @Test
+    void recordBorrow_ReusesBucketOfExpiredDay() {
+        borrow(1L, 10L, NOW.minus(Duration.ofDays(7)), 4);
+        borrow(2L, 10L, NOW, 1);
+
+        assertEquals(List.of(new BorrowCountResponse(2L, 1)), rollups.topBooks(NOW, 7, 10));
+        // Older than what the bucket now holds
+        borrow(1L, 10L, NOW.minus(Duration.ofDays(7)), 1);
+        assertEquals(0, rollups.bookBorrows(1L, NOW, 7));
+    }
+
+    @Test
+    void hourly_CountsBorrowsAndReturnsPerHour() {
+        borrow(1L, 10L, NOW, 2);
+        borrow(1L, 10L, NOW.minus(Duration.ofHours(2)), 1);
+        rollups.recordReturn(NOW);
+
+        List<HourlyCirculationResponse> hours = rollups.hourly(NOW, 3);
+        assertEquals(List.of(
+                new HourlyCirculationResponse(Instant.parse("2024-01-15T08:00:00Z"), 1, 0),
+                new HourlyCirculationResponse(Instant.parse("2024-01-15T09:00:00Z"), 0, 0),
+                new HourlyCirculationResponse(Instant.parse("2024-01-15T10:00:00Z"), 2, 1)), hours);
+    }
+
+    @Test
+    void hourly_IgnoresHoursOutsideRetention() {
+        borrow(1L, 10L, NOW.minus(Duration.ofDays(7)), 1);
+
+        List<HourlyCirculationResponse> hours = rollups.hourly(NOW, 1000);
+        assertEquals(7 * 24, hours.size());
+        assertTrue(hours.stream().allMatch(hour -> hour.getBorrows() == 0));
+    }
+
+    @Test
+    void removeBook_DropsItsCounts() {
+        borrow(1L, 10L, NOW, 3);
+        borrow(2L, 10L, NOW, 1);
+        rollups.removeBook(1L);
+
+        assertEquals(List.of(new BorrowCountResponse(2L, 1)), rollups.topBooks(NOW, 7, 10));
+        assertEquals(4, rollups.memberBorrows(10L, NOW, 7));
+    }
+
+    private void borrow(long bookId, long memberId, Instant at, int times) {
+        for (int i = 0; i < times; i++) {
+            rollups.recordBorrow(bookId, memberId, at);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.springbooks.library.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void add_CountsExactlyWhileUnderCapacity() {
+        HeavyHitters sketch = new HeavyHitters(3);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.add(2L);
+
+        assertEquals(List.of(2L, 1L), sketch.keys());
+        assertEquals(2, sketch.estimate(2L));
+        assertEquals(1, sketch.estimate(1L));
+        assertEquals(0, sketch.estimate(3L));
+    }
+
+    @Test
+    void add_NewKeyReplacesLeastFrequent() {
+        HeavyHitters sketch = new HeavyHitters(2);
+        sketch.add(1L);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.add(3L);
+
+        assertEquals(0, sketch.estimate(2L));
+        // Inherits the evicted count, so it is overestimated by at most that
+        assertEquals(2, sketch.estimate(3L));
+        assertEquals(2, sketch.keys().size());
+    }
+
+    @Test
+    void add_KeepsFrequentKeysAmongNoise() {
+        HeavyHitters sketch = new HeavyHitters(20);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // Keys 1 to 3 make up 30% of the stream, the rest is spread over 10000 keys
+            long key = random.nextInt(10) < 3 ? 1 + random.nextInt(3) : 100 + random.nextInt(10_000);
+            sketch.add(key);
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), sketch.keys().subList(0, 3).stream().sorted().toList());
+    }
+
+    @Test
+    void remove_StopsTrackingKey() {
+        HeavyHitters sketch = new HeavyHitters(2);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.remove(1L);
+        sketch.add(3L);
+
+        assertEquals(0, sketch.estimate(1L));
+        assertEquals(1, sketch.estimate(3L));
+    }
+}
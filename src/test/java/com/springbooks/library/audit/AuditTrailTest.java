@@ -0,0 +1,119 @@
+package com.springbooks.library.audit;
+
+import com.springbooks.library.config.AuditProperties;
+import com.springbooks.library.model.entity.AuditRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuditTrailTest {
+
+    private static final long BAD_ENTITY_ID = 13L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> writtenIds = new ArrayList<>();
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AuditProperties properties = new AuditProperties();
+        properties.setFlushInterval(Duration.ofMillis(5));
+        properties.setRetryBackoff(Duration.ofMillis(5));
+        auditTrail = new AuditTrail(jdbcTemplate, transactionManager, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        auditTrail.stop();
+    }
+
+    @Test
+    void write_BadRow_IsDiscardedAndRestOfBatchWritten() throws Exception {
+        stubInsert(batch -> {
+            if (batch.stream().anyMatch(event -> event.entityId() == BAD_ENTITY_ID)) {
+                throw new DataIntegrityViolationException("value too long for column principal");
+            }
+        });
+        auditTrail.record(AuditRecord.Action.BOOK_CREATED, 1L, null);
+        auditTrail.record(AuditRecord.Action.BOOK_CREATED, BAD_ENTITY_ID, null);
+        auditTrail.record(AuditRecord.Action.BOOK_CREATED, 2L, null);
+
+        auditTrail.start();
+        awaitCount("written", 2);
+
+        assertEquals(1, count("failed"));
+        assertEquals(List.of(1L, 2L), writtenIds());
+    }
+
+    @Test
+    void write_TransientFailure_RetriesWholeBatch() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        stubInsert(batch -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new QueryTimeoutException("database busy");
+            }
+        });
+        auditTrail.record(AuditRecord.Action.BOOK_CREATED, 1L, null);
+        auditTrail.record(AuditRecord.Action.BOOK_CREATED, 2L, null);
+
+        auditTrail.start();
+        awaitCount("written", 2);
+
+        assertEquals(3, attempts.get());
+        assertEquals(0, count("failed"));
+    }
+
+    private void stubInsert(Consumer<List<AuditEvent>> insert) {
+        when(jdbcTemplate.batchUpdate(eq(AuditTrail.INSERT_SQL), ArgumentMatchers.<Collection<AuditEvent>>any(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<AuditEvent>>any())).thenAnswer(invocation -> {
+                    List<AuditEvent> batch = List.copyOf(invocation.<Collection<AuditEvent>>getArgument(1));
+                    insert.accept(batch);
+                    synchronized (writtenIds) {
+                        batch.forEach(event -> writtenIds.add(event.entityId()));
+                    }
+                    return new int[0][0];
+                });
+    }
+
+    private List<Long> writtenIds() {
+        synchronized (writtenIds) {
+            return List.copyOf(writtenIds);
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter(AuditTrail.EVENT_COUNTER, "outcome", outcome).count();
+    }
+
+    private void awaitCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count(outcome));
+    }
+}
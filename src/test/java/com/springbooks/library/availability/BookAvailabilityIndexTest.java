@@ -0,0 +1,75 @@
+package com.springbooks.library.availability;
+
+import com.springbooks.library.availability.BookAvailabilityIndex.Availability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAvailabilityIndexTest {
+
+    private BookAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookAvailabilityIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, id == 3, 1L);
+        }
+    }
+
+    @Test
+    void availability_ReportsStateOfEachBook() {
+        assertEquals(Availability.AVAILABLE, index.availability(1L));
+        assertEquals(Availability.BORROWED, index.availability(3L));
+        assertEquals(Availability.UNKNOWN, index.availability(42L));
+    }
+
+    @Test
+    void availableAfter_SkipsBorrowedBooksAndHonoursCursor() {
+        assertEquals(List.of(1L, 2L, 4L), index.availableAfter(0L, 3));
+        assertEquals(List.of(4L, 5L), index.availableAfter(2L, 10));
+        assertTrue(index.availableAfter(5L, 10).isEmpty());
+    }
+
+    @Test
+    void setBorrowed_FlipsStateOfCataloguedBooksOnly() {
+        index.setBorrowed(1L, true, 2L);
+        index.setBorrowed(3L, false, 2L);
+        index.setBorrowed(42L, false, 2L);
+
+        assertEquals(Availability.BORROWED, index.availability(1L));
+        assertEquals(Availability.AVAILABLE, index.availability(3L));
+        assertEquals(Availability.UNKNOWN, index.availability(42L));
+        assertEquals(4, index.availableCount());
+    }
+
+    @Test
+    void setBorrowed_DropsUpdatesOlderThanLastApplied() {
+        // The return committed after the borrow but its listener ran first
+        index.setBorrowed(1L, false, 3L);
+        index.setBorrowed(1L, true, 2L);
+
+        assertEquals(Availability.AVAILABLE, index.availability(1L));
+    }
+
+    @Test
+    void put_DoesNotOverwriteNewerUpdate() {
+        // A rebuild that read the row before a borrow committed and was applied
+        index.setBorrowed(2L, true, 2L);
+        index.put(2L, false, 1L);
+
+        assertEquals(Availability.BORROWED, index.availability(2L));
+    }
+
+    @Test
+    void remove_ForgetsBook() {
+        index.remove(2L);
+
+        assertEquals(Availability.UNKNOWN, index.availability(2L));
+        assertEquals(List.of(1L, 4L, 5L), index.availableAfter(0L, 10));
+        assertEquals(4, index.cataloguedCount());
+    }
+}
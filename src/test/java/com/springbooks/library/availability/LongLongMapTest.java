@@ -0,0 +1,41 @@
+package com.springbooks.library.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongMapTest {
+
+    private final LongLongMap map = new LongLongMap();
+
+    @Test
+    void putGetRemove_MatchesHashMapThroughResizesAndCollisions() {
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // A small key range so removals keep hitting entries inside probe runs
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1L));
+        }
+    }
+
+    @Test
+    void put_NegativeKey_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1L, 0L));
+    }
+}
@@ -0,0 +1,81 @@
+package com.springbooks.library.controller;
+
+import com.springbooks.library.config.TestSecurityConfig;
+import com.springbooks.library.model.response.BorrowCountResponse;
+import com.springbooks.library.model.response.HourlyCirculationResponse;
+import com.springbooks.library.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+@Import(TestSecurityConfig.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AnalyticsService analyticsService;
+
+    @Test
+    void getMostBorrowedBooks_WithValidToken_Success() throws Exception {
+        when(analyticsService.getMostBorrowedBooks(7, 2)).thenReturn(List.of(
+            new BorrowCountResponse(3L, 12),
+            new BorrowCountResponse(1L, 9)
+        ));
+
+        mockMvc.perform(get("/api/analytics/books/top")
+                .param("limit", "2")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Most borrowed books retrieved successfully"))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(3))
+                .andExpect(jsonPath("$.data[0].borrows").value(12));
+    }
+
+    @Test
+    void getMostBorrowedBooks_WithoutToken_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/analytics/books/top"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getMemberBorrows_WithValidToken_Success() throws Exception {
+        when(analyticsService.getMemberBorrows(2L, 1)).thenReturn(new BorrowCountResponse(2L, 4));
+
+        mockMvc.perform(get("/api/analytics/members/2")
+                .param("days", "1")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(2))
+                .andExpect(jsonPath("$.data.borrows").value(4));
+    }
+
+    @Test
+    void getHourlyCirculation_WithValidToken_Success() throws Exception {
+        Instant hour = Instant.parse("2024-01-01T10:00:00Z");
+        when(analyticsService.getHourlyCirculation(24)).thenReturn(List.of(
+            new HourlyCirculationResponse(hour, 5, 2)
+        ));
+
+        mockMvc.perform(get("/api/analytics/circulation/hourly")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].hour").value("2024-01-01T10:00:00Z"))
+                .andExpect(jsonPath("$.data[0].borrows").value(5))
+                .andExpect(jsonPath("$.data[0].returns").value(2));
+    }
+}
@@ -1,30 +1,55 @@
 package com.springbooks.library.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbooks.library.config.SerializationProperties;
 import com.springbooks.library.config.TestSecurityConfig;
+import com.springbooks.library.etag.CatalogVersions;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.exception.SearchPageTooDeepException;
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.request.AvailabilityRequest;
 import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.AvailabilityResponse;
 import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.SearchPage;
+import com.springbooks.library.service.BookAvailabilityService;
+import com.springbooks.library.service.BookSearchService;
 import com.springbooks.library.service.BookService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookController.class)
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, CatalogVersions.class})
 class BookControllerTest {
 
     @Autowired
@@ -33,13 +58,25 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookSearchService bookSearchService;
+
+    @MockBean
+    private BookAvailabilityService bookAvailabilityService;
+
+    @MockBean
+    private SerializationProperties serializationProperties;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Test
     void createBook_WithValidToken_Success() throws Exception {
-        BookRequest request = new BookRequest("Test Book", "Test Author", "123456789");
-        BookResponse response = new BookResponse(1L, "Test Book", "Test Author", "123456789", false);
+        BookRequest request = new BookRequest("Test Book", "Test Author", "123456789", 1);
+        BookResponse response = new BookResponse(1L, "Test Book", "Test Author", "123456789", false, 1, 1);
         
         when(bookService.createBook(any(BookRequest.class))).thenReturn(response);
 
@@ -56,7 +93,7 @@ class BookControllerTest {
 
     @Test
     void createBook_WithoutToken_Unauthorized() throws Exception {
-        BookRequest request = new BookRequest("Test Book", "Test Author", "123456789");
+        BookRequest request = new BookRequest("Test Book", "Test Author", "123456789", 1);
 
         mockMvc.perform(post("/api/books")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -66,7 +103,7 @@ class BookControllerTest {
 
     @Test
     void createBook_InvalidInput_BadRequest() throws Exception {
-        BookRequest request = new BookRequest("", "", ""); // Invalid input
+        BookRequest request = new BookRequest("", "", "", 1); // Invalid input
 
         mockMvc.perform(post("/api/books")
                 .with(jwt())
@@ -75,28 +112,186 @@ class BookControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void bulkCreateBooks_WithValidToken_ReportsEveryRow() throws Exception {
+        List<BookRequest> requests = List.of(
+            new BookRequest("Book 1", "Author 1", "111111111", 1),
+            new BookRequest("Book 2", "Author 2", "222222222", 1)
+        );
+        
+        when(bookService.createBooks(anyList(), anyLong())).thenReturn(List.of(
+            BulkItemResult.created(0, "111111111", 1L),
+            BulkItemResult.duplicate(1, "222222222", "Book with ISBN 222222222 already exists")
+        ));
+
+        mockMvc.perform(post("/api/books/bulk")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.total").value(2))
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.duplicates").value(1))
+                .andExpect(jsonPath("$.data.results[1].status").value("DUPLICATE"));
+    }
+
     @Test
     void getAllBooks_WithValidToken_Success() throws Exception {
         List<BookResponse> books = Arrays.asList(
-            new BookResponse(1L, "Book 1", "Author 1", "111111111", false),
-            new BookResponse(2L, "Book 2", "Author 2", "222222222", true)
+            new BookResponse(1L, "Book 1", "Author 1", "111111111", false, 1, 1),
+            new BookResponse(2L, "Book 2", "Author 2", "222222222", true, 1, 0)
         );
         
-        when(bookService.getAllBooks()).thenReturn(books);
+        when(bookService.getAllBooks(null, CursorPage.DEFAULT_SIZE))
+            .thenReturn(new CursorPage<>(books, 2, null, false));
 
         mockMvc.perform(get("/api/books")
                 .with(jwt()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(2))
-                .andExpect(jsonPath("$.data[0].title").value("Book 1"))
-                .andExpect(jsonPath("$.data[1].title").value("Book 2"));
+                .andExpect(jsonPath("$.data.content").isArray())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].title").value("Book 1"))
+                .andExpect(jsonPath("$.data.content[1].title").value("Book 2"))
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+    }
+
+    @Test
+    void getAllBooks_DirectJson_MatchesJacksonOutput() throws Exception {
+        when(serializationProperties.isDirectJson(SerializationProperties.Endpoint.BOOK_LIST)).thenReturn(true);
+        when(bookService.getBookRows(null, CursorPage.DEFAULT_SIZE)).thenReturn(new CursorPage<>(List.of(
+            new Book(1L, "Book 1", "Author 1", "111111111", false, 1, 1, 0L),
+            new Book(2L, "Book 2", "Author 2", "222222222", true, 1, 0, 3L)
+        ), 2, 2L, true));
+
+        mockMvc.perform(get("/api/books")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(ApiResponse.success(
+                    new CursorPage<>(List.of(
+                        new BookResponse(1L, "Book 1", "Author 1", "111111111", false, 1, 1),
+                        new BookResponse(2L, "Book 2", "Author 2", "222222222", true, 1, 0)
+                    ), 2, 2L, true),
+                    "Books retrieved successfully"
+                ))));
+    }
+
+    @Test
+    void getAllBooks_WithCursorAndOversizedPage_ClampsPageSize() throws Exception {
+        List<BookResponse> books = List.of(new BookResponse(6L, "Book 6", "Author 6", "666666666", false, 1, 1));
+        
+        when(bookService.getAllBooks(5L, CursorPage.MAX_SIZE))
+            .thenReturn(new CursorPage<>(books, 1, 6L, true));
+
+        mockMvc.perform(get("/api/books")
+                .param("cursor", "5")
+                .param("size", "100000")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(6))
+                .andExpect(jsonPath("$.data.nextCursor").value(6))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    void exportBooks_WithValidToken_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookResponse> consumer = invocation.getArgument(0);
+            consumer.accept(new BookResponse(1L, "Book 1", "Author 1", "111111111", false, 1, 1));
+            consumer.accept(new BookResponse(2L, "Book 2", "Author 2", "222222222", true, 1, 0));
+            return null;
+        }).when(bookService).streamAllBooks(ArgumentMatchers.<Consumer<BookResponse>>any());
+
+        MvcResult result = mockMvc.perform(get("/api/books/export")
+                .with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    "{\"id\":1,\"title\":\"Book 1\",\"author\":\"Author 1\",\"isbn\":\"111111111\",\"isBorrowed\":false,\"totalCopies\":1,\"availableCopies\":1}\n"
+                    + "{\"id\":2,\"title\":\"Book 2\",\"author\":\"Author 2\",\"isbn\":\"222222222\",\"isBorrowed\":true,\"totalCopies\":1,\"availableCopies\":0}\n"));
+    }
+
+    @Test
+    void exportBooks_DirectJson_StreamsNdjson() throws Exception {
+        when(serializationProperties.isDirectJson(SerializationProperties.Endpoint.BOOK_EXPORT)).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(new Book(1L, "Book 1", "Author 1", "111111111", false, 1, 1, 0L));
+            consumer.accept(new Book(2L, "Book 2", "Author 2", "222222222", true, 1, 0, 0L));
+            return null;
+        }).when(bookService).streamAllBookRows(ArgumentMatchers.<Consumer<Book>>any());
+
+        MvcResult result = mockMvc.perform(get("/api/books/export")
+                .with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    "{\"id\":1,\"title\":\"Book 1\",\"author\":\"Author 1\",\"isbn\":\"111111111\",\"isBorrowed\":false,\"totalCopies\":1,\"availableCopies\":1}\n"
+                    + "{\"id\":2,\"title\":\"Book 2\",\"author\":\"Author 2\",\"isbn\":\"222222222\",\"isBorrowed\":true,\"totalCopies\":1,\"availableCopies\":0}\n"));
+    }
+
+    @Test
+    void getBookById_MatchingETag_NotModifiedWithoutLookup() throws Exception {
+        String etag = catalogVersions.bookETag(1L);
+
+        mockMvc.perform(get("/api/books/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(jwt()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).getBookById(anyLong());
+    }
+
+    @Test
+    void getBookById_ChangedSinceETag_ReturnsBookWithNewETag() throws Exception {
+        String etag = catalogVersions.bookETag(1L);
+        catalogVersions.onCirculation(BookCirculationEvent.borrowed(1L, 1L, 0, 1L, 1L, Instant.now()));
+        when(bookService.getBookById(1L)).thenReturn(new BookResponse(1L, "Test Book", "Test Author", "123456789", true, 1, 0));
+
+        mockMvc.perform(get("/api/books/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersions.bookETag(1L)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.data.isBorrowed").value(true));
+    }
+
+    @Test
+    void getAllBooks_MatchingETag_NotModifiedUntilCatalogChanges() throws Exception {
+        String etag = catalogVersions.catalogETag();
+
+        mockMvc.perform(get("/api/books")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(jwt()))
+                .andExpect(status().isNotModified());
+        verify(bookService, never()).getAllBooks(any(), anyInt());
+
+        catalogVersions.onBookChanged(BookChangedEvent.deleted(2L));
+        when(bookService.getAllBooks(null, CursorPage.DEFAULT_SIZE)).thenReturn(new CursorPage<>(List.of(), 0, null, false));
+
+        mockMvc.perform(get("/api/books")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersions.catalogETag()));
     }
 
     @Test
     void getBookById_WithValidToken_Success() throws Exception {
-        BookResponse response = new BookResponse(1L, "Test Book", "Test Author", "123456789", false);
+        BookResponse response = new BookResponse(1L, "Test Book", "Test Author", "123456789", false, 1, 1);
         
         when(bookService.getBookById(1L)).thenReturn(response);
 
@@ -109,8 +304,8 @@ class BookControllerTest {
 
     @Test
     void updateBook_WithValidToken_Success() throws Exception {
-        BookRequest request = new BookRequest("Updated Book", "Updated Author", "123456789");
-        BookResponse response = new BookResponse(1L, "Updated Book", "Updated Author", "123456789", false);
+        BookRequest request = new BookRequest("Updated Book", "Updated Author", "123456789", 1);
+        BookResponse response = new BookResponse(1L, "Updated Book", "Updated Author", "123456789", false, 1, 1);
         
         when(bookService.updateBook(eq(1L), any(BookRequest.class))).thenReturn(response);
 
@@ -130,4 +325,73 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
     }
+
+    @Test
+    void searchBooks_WithValidToken_Success() throws Exception {
+        BookResponse book = new BookResponse(1L, "Animal Farm", "George Orwell", "123456789", false, 1, 1);
+        when(bookSearchService.search("orwell", 0, CursorPage.DEFAULT_SIZE))
+                .thenReturn(new SearchPage<>(List.of(book), 0, CursorPage.DEFAULT_SIZE, 1));
+
+        mockMvc.perform(get("/api/books/search")
+                .param("q", "orwell")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content[0].title").value("Animal Farm"))
+                .andExpect(jsonPath("$.data.totalHits").value(1));
+    }
+
+    @Test
+    void searchBooks_PageBeyondResultWindow_ReturnsBadRequest() throws Exception {
+        when(bookSearchService.search("orwell", Integer.MAX_VALUE, 500))
+                .thenThrow(new SearchPageTooDeepException("Search results can only be paged through the first "
+                        + BookSearchService.MAX_RESULT_WINDOW + " hits"));
+
+        mockMvc.perform(get("/api/books/search")
+                .param("q", "orwell")
+                .param("page", String.valueOf(Integer.MAX_VALUE))
+                .param("size", "500")
+                .with(jwt()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getAvailableBooks_WithValidToken_Success() throws Exception {
+        when(bookAvailabilityService.getAvailableBookIds(2L, 2))
+                .thenReturn(new CursorPage<>(List.of(4L, 5L), 2, 5L, true));
+
+        mockMvc.perform(get("/api/books/available")
+                .param("cursor", "2")
+                .param("size", "2")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0]").value(4))
+                .andExpect(jsonPath("$.data.nextCursor").value(5));
+    }
+
+    @Test
+    void checkAvailability_WithValidToken_Success() throws Exception {
+        AvailabilityRequest request = new AvailabilityRequest(List.of(1L, 2L, 99L));
+        when(bookAvailabilityService.checkAvailability(List.of(1L, 2L, 99L)))
+                .thenReturn(new AvailabilityResponse(List.of(1L), List.of(2L), List.of(99L)));
+
+        mockMvc.perform(post("/api/books/availability")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.available[0]").value(1))
+                .andExpect(jsonPath("$.data.borrowed[0]").value(2))
+                .andExpect(jsonPath("$.data.unknown[0]").value(99));
+    }
+
+    @Test
+    void checkAvailability_WithEmptyIds_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/books/availability")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AvailabilityRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,95 @@
+package com.springbooks.library.controller;
+
+import com.springbooks.library.changes.ChangeFeedBroadcaster;
+import com.springbooks.library.config.TestSecurityConfig;
+import com.springbooks.library.exception.ChangeFeedExpiredException;
+import com.springbooks.library.model.entity.ChangeLogEntry;
+import com.springbooks.library.model.response.ChangeResponse;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.MemberResponse;
+import com.springbooks.library.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeFeedController.class)
+@Import(TestSecurityConfig.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @MockBean
+    private ChangeFeedBroadcaster broadcaster;
+
+    @Test
+    void getChanges_WithValidToken_Success() throws Exception {
+        ChangeResponse change = new ChangeResponse(8L, ChangeLogEntry.EntityType.MEMBER, 3L,
+                ChangeLogEntry.ChangeType.UPDATED, Instant.parse("2024-01-01T10:00:00Z"),
+                new MemberResponse(3L, "Bob Johnson", "bob@example.com"));
+        when(changeFeedService.getChanges(7L, CursorPage.DEFAULT_SIZE))
+                .thenReturn(new CursorPage<>(List.of(change), 1, 8L, false));
+
+        mockMvc.perform(get("/api/changes")
+                .param("since", "7")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content[0].seq").value(8))
+                .andExpect(jsonPath("$.data.content[0].entityType").value("MEMBER"))
+                .andExpect(jsonPath("$.data.content[0].changeType").value("UPDATED"))
+                .andExpect(jsonPath("$.data.content[0].data.name").value("Bob Johnson"))
+                .andExpect(jsonPath("$.data.nextCursor").value(8));
+    }
+
+    @Test
+    void getChanges_WithoutToken_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getChanges_CursorCompacted_Gone() throws Exception {
+        when(changeFeedService.getChanges(2L, CursorPage.DEFAULT_SIZE))
+                .thenThrow(new ChangeFeedExpiredException("Changes up to sequence 5 have been compacted"));
+
+        mockMvc.perform(get("/api/changes")
+                .param("since", "2")
+                .with(jwt()))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Change feed cursor expired"))
+                .andExpect(jsonPath("$.error").value("Changes up to sequence 5 have been compacted"));
+    }
+
+    @Test
+    void streamChanges_CursorCompacted_GoneWithoutSubscribing() throws Exception {
+        doThrow(new ChangeFeedExpiredException("Changes up to sequence 5 have been compacted"))
+                .when(changeFeedService).assertCursorAvailable(2L);
+
+        mockMvc.perform(get("/api/changes/stream")
+                .header("Last-Event-ID", "2")
+                .with(jwt()))
+                .andExpect(status().isGone());
+
+        verify(broadcaster, never()).subscribe(anyLong());
+    }
+}
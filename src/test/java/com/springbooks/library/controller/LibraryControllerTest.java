@@ -4,18 +4,34 @@ import com.springbooks.library.config.TestSecurityConfig;
 import com.springbooks.library.exception.BookAlreadyBorrowedException;
 import com.springbooks.library.exception.BookNotFoundException;
 import com.springbooks.library.exception.BookNotBorrowedException;
+import com.springbooks.library.exception.HoldNotFoundException;
 import com.springbooks.library.exception.MemberNotFoundException;
+import com.springbooks.library.model.request.BatchMode;
+import com.springbooks.library.model.response.BatchCirculationResponse;
+import com.springbooks.library.model.response.CirculationResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.HoldResponse;
+import com.springbooks.library.model.response.LoanResponse;
 import com.springbooks.library.service.BookService;
+import com.springbooks.library.service.HoldService;
+import com.springbooks.library.service.LoanService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +45,12 @@ class LibraryControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private LoanService loanService;
+
+    @MockBean
+    private HoldService holdService;
+
     @Test
     void borrowBook_WithValidToken_Success() throws Exception {
         doNothing().when(bookService).borrowBook(1L, 1L);
@@ -111,4 +133,155 @@ class LibraryControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Book not borrowed"));
     }
+
+    @Test
+    void borrowBooks_WithValidToken_Success() throws Exception {
+        when(bookService.borrowBooks(1L, List.of(1L, 2L), BatchMode.ALL_OR_NOTHING)).thenReturn(BatchCirculationResponse.of(
+            BatchMode.ALL_OR_NOTHING,
+            List.of(new CirculationResult(1L, CirculationResult.Status.BORROWED, null),
+                    new CirculationResult(2L, CirculationResult.Status.BORROWED, null))
+        ));
+
+        mockMvc.perform(post("/api/borrow/batch")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"memberId\":1,\"bookIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.succeeded").value(2))
+                .andExpect(jsonPath("$.data.results[1].status").value("BORROWED"));
+    }
+
+    @Test
+    void borrowBooks_AllOrNothingRejected_Conflict() throws Exception {
+        when(bookService.borrowBooks(1L, List.of(1L, 2L), BatchMode.ALL_OR_NOTHING)).thenReturn(BatchCirculationResponse.of(
+            BatchMode.ALL_OR_NOTHING,
+            List.of(new CirculationResult(1L, CirculationResult.Status.SKIPPED, "skipped"),
+                    new CirculationResult(2L, CirculationResult.Status.ALREADY_BORROWED, "borrowed"))
+        ));
+
+        mockMvc.perform(post("/api/borrow/batch")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"memberId\":1,\"bookIds\":[1,2],\"mode\":\"ALL_OR_NOTHING\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data.failed").value(2))
+                .andExpect(jsonPath("$.data.results[1].status").value("ALREADY_BORROWED"));
+    }
+
+    @Test
+    void borrowBooks_MissingBookIds_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/borrow/batch")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"memberId\":1,\"bookIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnBooks_Partial_Success() throws Exception {
+        when(bookService.returnBooks(List.of(1L, 2L), BatchMode.PARTIAL)).thenReturn(BatchCirculationResponse.of(
+            BatchMode.PARTIAL,
+            List.of(new CirculationResult(1L, CirculationResult.Status.RETURNED, null),
+                    new CirculationResult(2L, CirculationResult.Status.NOT_BORROWED, "not borrowed"))
+        ));
+
+        mockMvc.perform(post("/api/return/batch")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookIds\":[1,2],\"mode\":\"PARTIAL\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.succeeded").value(1))
+                .andExpect(jsonPath("$.data.failed").value(1));
+    }
+
+    @Test
+    void getActiveLoansForMember_WithValidToken_Success() throws Exception {
+        Instant borrowedAt = Instant.parse("2024-01-01T10:00:00Z");
+        when(loanService.getActiveLoansForMember(1L)).thenReturn(List.of(
+            new LoanResponse(10L, 3L, 5L, 1L, borrowedAt, borrowedAt.plusSeconds(86400), null)
+        ));
+
+        mockMvc.perform(get("/api/loans/member/1")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].bookId").value(3))
+                .andExpect(jsonPath("$.data[0].returnedAt").doesNotExist());
+    }
+
+    @Test
+    void getActiveLoansForMember_MemberNotFound_NotFound() throws Exception {
+        when(loanService.getActiveLoansForMember(1L)).thenThrow(new MemberNotFoundException("Member not found"));
+
+        mockMvc.perform(get("/api/loans/member/1")
+                .with(jwt()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getOverdueLoans_WithValidToken_Success() throws Exception {
+        Instant borrowedAt = Instant.parse("2024-01-01T10:00:00Z");
+        List<LoanResponse> loans = List.of(
+            new LoanResponse(10L, 3L, 5L, 1L, borrowedAt, borrowedAt.plusSeconds(86400), null),
+            new LoanResponse(11L, 4L, 6L, 2L, borrowedAt, borrowedAt.plusSeconds(2 * 86400), null)
+        );
+        when(loanService.getOverdueLoans(null, 1)).thenReturn(CursorPage.of(loans, 1, LoanResponse::getId));
+
+        mockMvc.perform(get("/api/loans/overdue")
+                .param("size", "1")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Overdue loans retrieved successfully"))
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(10))
+                .andExpect(jsonPath("$.data.nextCursor").value(10));
+    }
+
+    @Test
+    void placeHold_WithValidToken_Created() throws Exception {
+        when(holdService.placeHold(1L, 2L)).thenReturn(new HoldResponse(1L, 2L, 1, 1));
+
+        mockMvc.perform(post("/api/holds/1/member/2")
+                .with(jwt()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Hold placed successfully"))
+                .andExpect(jsonPath("$.data.position").value(1));
+    }
+
+    @Test
+    void placeHold_BookAvailable_BadRequest() throws Exception {
+        when(holdService.placeHold(1L, 2L)).thenThrow(new BookNotBorrowedException("Book is available"));
+
+        mockMvc.perform(post("/api/holds/1/member/2")
+                .with(jwt()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getHold_ReturnsQueuePosition() throws Exception {
+        when(holdService.getHold(1L, 3L)).thenReturn(new HoldResponse(1L, 3L, 2, 2));
+
+        mockMvc.perform(get("/api/holds/1/member/3")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.position").value(2))
+                .andExpect(jsonPath("$.data.queueLength").value(2));
+    }
+
+    @Test
+    void cancelHold_NoHold_NotFound() throws Exception {
+        doThrow(new HoldNotFoundException("No hold")).when(holdService).cancelHold(1L, 2L);
+
+        mockMvc.perform(delete("/api/holds/1/member/2")
+                .with(jwt()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Hold not found"));
+    }
 }
@@ -0,0 +1,109 @@
+package com.springbooks.library.controller;
+
+import com.springbooks.library.config.TestSecurityConfig;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.MemberResponse;
+import com.springbooks.library.service.FineService;
+import com.springbooks.library.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MemberController.class)
+@Import(TestSecurityConfig.class)
+class MemberControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberService memberService;
+
+    @MockBean
+    private FineService fineService;
+
+    @Test
+    void getAllMembers_WithValidToken_Success() throws Exception {
+        List<MemberResponse> members = List.of(
+            new MemberResponse(1L, "John Doe", "john@example.com"),
+            new MemberResponse(2L, "Jane Doe", "jane@example.com")
+        );
+
+        when(memberService.getAllMembers(null, CursorPage.DEFAULT_SIZE))
+            .thenReturn(new CursorPage<>(members, 2, null, false));
+
+        mockMvc.perform(get("/api/members")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.data.content[1].email").value("jane@example.com"))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+    }
+
+    @Test
+    void getAllMembers_WithCursorAndOversizedPage_ClampsPageSize() throws Exception {
+        List<MemberResponse> members = List.of(new MemberResponse(6L, "Member 6", "six@example.com"));
+
+        when(memberService.getAllMembers(5L, CursorPage.MAX_SIZE))
+            .thenReturn(new CursorPage<>(members, 1, 6L, true));
+
+        mockMvc.perform(get("/api/members")
+                .param("cursor", "5")
+                .param("size", "100000")
+                .with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(6))
+                .andExpect(jsonPath("$.data.nextCursor").value(6))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    void getAllMembers_WithoutToken_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/members"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(memberService);
+    }
+
+    @Test
+    void exportMembers_WithValidToken_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<MemberResponse> consumer = invocation.getArgument(0);
+            consumer.accept(new MemberResponse(1L, "John Doe", "john@example.com"));
+            consumer.accept(new MemberResponse(2L, "Jane Doe", "jane@example.com"));
+            return null;
+        }).when(memberService).streamAllMembers(ArgumentMatchers.<Consumer<MemberResponse>>any());
+
+        MvcResult result = mockMvc.perform(get("/api/members/export")
+                .with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    "{\"id\":1,\"name\":\"John Doe\",\"email\":\"john@example.com\"}\n"
+                    + "{\"id\":2,\"name\":\"Jane Doe\",\"email\":\"jane@example.com\"}\n"));
+    }
+}
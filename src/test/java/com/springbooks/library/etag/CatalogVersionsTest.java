@@ -0,0 +1,41 @@
+package com.springbooks.library.etag;
+
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.event.BookCirculationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionsTest {
+
+    private final CatalogVersions versions = new CatalogVersions();
+
+    @Test
+    void change_BumpsCatalogAndOnlyThatBook() {
+        String catalog = versions.catalogETag();
+        String book1 = versions.bookETag(1L);
+        String book2 = versions.bookETag(2L);
+
+        versions.onCirculation(BookCirculationEvent.returned(1L, 1, 1L, 1L, Instant.now()));
+
+        assertNotEquals(catalog, versions.catalogETag());
+        assertNotEquals(book1, versions.bookETag(1L));
+        assertEquals(book2, versions.bookETag(2L));
+        assertTrue(versions.bookETag(1L).startsWith("\"") && versions.bookETag(1L).endsWith("\""));
+    }
+
+    @Test
+    void tooManyTrackedBooks_RotatesEpochAndInvalidatesEveryTag() {
+        String untouched = versions.bookETag(-1L);
+        for (long id = 0; id < CatalogVersions.MAX_TRACKED_BOOKS; id++) {
+            versions.onBookChanged(BookChangedEvent.deleted(id));
+        }
+        assertEquals(untouched, versions.bookETag(-1L));
+
+        versions.onBookChanged(BookChangedEvent.deleted(CatalogVersions.MAX_TRACKED_BOOKS + 1L));
+
+        assertNotEquals(untouched, versions.bookETag(-1L));
+    }
+}
@@ -0,0 +1,50 @@
+package com.springbooks.library.etag;
+
+import com.springbooks.library.config.CacheConfig;
+import com.springbooks.library.event.BookChangedEvent;
+import com.springbooks.library.model.response.BookResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaggedBookCacheTest {
+
+    private final CatalogVersions versions = new CatalogVersions();
+    private final TaggedBookCache cache = new TaggedBookCache(new ConcurrentMapCacheManager(CacheConfig.BOOKS), versions);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_UnchangedBook_ServedFromCache() {
+        BookResponse first = cache.get(1L, () -> load("Old Title"));
+        BookResponse second = cache.get(1L, () -> load("New Title"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ChangeCommittedDuringLoad_StaleEntryIsNotServed() {
+        // The read misses, then the update commits and bumps the tag before the old value is put
+        cache.get(1L, () -> {
+            BookResponse stale = load("Old Title");
+            versions.onBookChanged(BookChangedEvent.updated(1L, "New Title", "Author"));
+            return stale;
+        });
+
+        BookResponse book = cache.get(1L, () -> load("New Title"));
+
+        assertEquals("New Title", book.getTitle());
+        assertEquals(2, loads.get());
+    }
+
+    private BookResponse load(String title) {
+        loads.incrementAndGet();
+        BookResponse book = new BookResponse();
+        book.setId(1L);
+        book.setTitle(title);
+        return book;
+    }
+}
@@ -0,0 +1,99 @@
+package com.springbooks.library.filter;
+
+import com.springbooks.library.exception.RateLimitExceededException;
+import com.springbooks.library.ratelimit.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, exceptionResolver, true);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_Allowed_PassesThroughWithRemainingHeaders() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("alice")
+                .build()));
+        when(rateLimiter.tryAcquire("GET", "/api/books", "sub:alice"))
+                .thenReturn(new RateLimiter.Decision("read", true, 400, 399, Duration.ZERO));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals("400", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("399", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        verifyNoInteractions(exceptionResolver);
+    }
+
+    @Test
+    void doFilter_Exceeded_RejectsAnonymousClientByAddress() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books");
+        request.setRemoteAddr("10.0.0.7");
+        when(rateLimiter.tryAcquire("POST", "/api/books", "ip:10.0.0.7"))
+                .thenReturn(new RateLimiter.Decision("write", false, 100, 0, Duration.ofMillis(20)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), argThat(ex ->
+                ex instanceof RateLimitExceededException limited
+                        && limited.getRetryAfter().equals(Duration.ofMillis(20))));
+    }
+
+    @Test
+    void doFilter_EncodedPath_MatchedDecoded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/%65xport");
+        request.setRemoteAddr("10.0.0.7");
+        when(rateLimiter.tryAcquire("GET", "/api/books/export", "ip:10.0.0.7"))
+                .thenReturn(new RateLimiter.Decision("export", true, 2, 1, Duration.ZERO));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals("2", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    void doFilter_UnverifiedSubjects_KeysByAddress() throws Exception {
+        RateLimitFilter unverified = new RateLimitFilter(rateLimiter, exceptionResolver, false);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("test-user")
+                .build()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.setRemoteAddr("10.0.0.7");
+        when(rateLimiter.tryAcquire("GET", "/api/books", "ip:10.0.0.7"))
+                .thenReturn(new RateLimiter.Decision("read", true, 400, 399, Duration.ZERO));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        unverified.doFilter(request, response, new MockFilterChain());
+
+        assertEquals("399", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+}
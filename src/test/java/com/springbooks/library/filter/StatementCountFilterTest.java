@@ -0,0 +1,37 @@
+package com.springbooks.library.filter;
+
+import com.springbooks.library.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountFilterTest {
+
+    private final StatementCounter counter = new StatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementCountFilter filter = new StatementCountFilter(counter, meterRegistry);
+
+    @Test
+    void doFilter_RecordsStatementsIssuedDuringRequest() throws Exception {
+        counter.inspect("select 1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            counter.inspect("select b from books b where b.id = ?");
+            counter.inspect("select l from loans l where l.book_id = ?");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}");
+        });
+
+        DistributionSummary summary = meterRegistry.get(StatementCountFilter.METRIC_NAME)
+                .tag("uri", "/api/books/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+}
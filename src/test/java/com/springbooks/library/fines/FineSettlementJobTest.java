@@ -0,0 +1,126 @@
+package com.springbooks.library.fines;
+
+import com.springbooks.library.config.FinesProperties;
+import com.springbooks.library.model.entity.FineSettlement;
+import com.springbooks.library.repository.FineSettlementRepository;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.FineService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FineSettlementJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private FineService fineService;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private FineSettlementRepository settlementRepository;
+
+    private FineSettlementJob job;
+
+    @BeforeEach
+    void setUp() {
+        FinesProperties properties = new FinesProperties();
+        properties.setChunkSize(100);
+        properties.setParallelism(2);
+        job = new FineSettlementJob(fineService, memberRepository, settlementRepository, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void settle_SplitsMemberIdsIntoChunks() {
+        when(settlementRepository.findLatestFineDate()).thenReturn(Optional.empty());
+        when(memberRepository.findIdRange()).thenReturn(idRange(1L, 250L));
+        when(fineService.settleChunk(eq(TODAY), anyLong(), anyLong())).thenReturn(2);
+
+        assertEquals(6, job.settle(TODAY));
+        verify(fineService).settleChunk(TODAY, 1L, 101L);
+        verify(fineService).settleChunk(TODAY, 101L, 201L);
+        verify(fineService).settleChunk(TODAY, 201L, 301L);
+        verifySettled(TODAY);
+    }
+
+    @Test
+    void settle_CatchesUpOnMissedDays() {
+        when(settlementRepository.findLatestFineDate()).thenReturn(Optional.of(TODAY.minusDays(3)));
+        when(memberRepository.findIdRange()).thenReturn(idRange(1L, 50L));
+        when(fineService.settleChunk(any(), eq(1L), eq(101L))).thenReturn(1);
+
+        assertEquals(3, job.settle(TODAY));
+        verifySettled(TODAY.minusDays(2), TODAY.minusDays(1), TODAY);
+    }
+
+    @Test
+    void settle_AlreadySettled_DoesNothing() {
+        when(settlementRepository.findLatestFineDate()).thenReturn(Optional.of(TODAY));
+
+        assertEquals(0, job.settle(TODAY));
+        verifyNoInteractions(fineService);
+        verify(settlementRepository, never()).save(any());
+    }
+
+    @Test
+    void settle_NoMembers_RecordsEmptyDay() {
+        when(settlementRepository.findLatestFineDate()).thenReturn(Optional.empty());
+        when(memberRepository.findIdRange()).thenReturn(idRange(null, null));
+
+        assertEquals(0, job.settle(TODAY));
+        verifyNoInteractions(fineService);
+        verifySettled(TODAY);
+    }
+
+    @Test
+    void settle_ChunkFails_LeavesDayUnsettled() {
+        when(settlementRepository.findLatestFineDate()).thenReturn(Optional.of(TODAY.minusDays(2)));
+        when(memberRepository.findIdRange()).thenReturn(idRange(1L, 150L));
+        when(fineService.settleChunk(TODAY.minusDays(1), 1L, 101L)).thenReturn(1);
+        when(fineService.settleChunk(TODAY.minusDays(1), 101L, 201L)).thenThrow(new IllegalStateException("Lock timeout"));
+
+        assertEquals(0, job.settle(TODAY));
+        // The other chunk still ran, and the next day was not started
+        verify(fineService).settleChunk(TODAY.minusDays(1), 1L, 101L);
+        verify(fineService, never()).settleChunk(eq(TODAY), anyLong(), anyLong());
+        verify(settlementRepository, never()).save(any());
+    }
+
+    private void verifySettled(LocalDate... days) {
+        ArgumentCaptor<FineSettlement> settlements = ArgumentCaptor.forClass(FineSettlement.class);
+        verify(settlementRepository, times(days.length)).save(settlements.capture());
+        assertEquals(List.of(days), settlements.getAllValues().stream().map(FineSettlement::getFineDate).toList());
+    }
+
+    private static MemberRepository.IdRange idRange(Long minId, Long maxId) {
+        return new MemberRepository.IdRange() {
+            @Override
+            public Long getMinId() {
+                return minId;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+        };
+    }
+}
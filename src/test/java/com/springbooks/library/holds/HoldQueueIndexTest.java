@@ -0,0 +1,66 @@
+package com.springbooks.library.holds;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldQueueIndexTest {
+
+    private HoldQueueIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HoldQueueIndex();
+        index.add(1L, 10L, 100L);
+        index.add(1L, 11L, 101L);
+        index.add(1L, 12L, 102L);
+    }
+
+    @Test
+    void position_FollowsArrivalOrder() {
+        assertEquals(1, index.position(1L, 100L));
+        assertEquals(2, index.position(1L, 101L));
+        assertEquals(3, index.position(1L, 102L));
+        assertEquals(3, index.length(1L));
+        assertEquals(0, index.position(1L, 999L));
+        assertEquals(0, index.position(2L, 100L));
+    }
+
+    @Test
+    void add_OrdersByHoldIdWhenEventsArriveOutOfOrder() {
+        index.add(2L, 21L, 201L);
+        index.add(2L, 20L, 200L);
+
+        assertEquals(1, index.position(2L, 200L));
+        assertEquals(2, index.position(2L, 201L));
+    }
+
+    @Test
+    void remove_MovesLaterHoldsUp() {
+        index.remove(1L, 100L);
+
+        assertEquals(0, index.position(1L, 100L));
+        assertEquals(1, index.position(1L, 101L));
+        assertEquals(2, index.position(1L, 102L));
+        assertEquals(2, index.length(1L));
+    }
+
+    @Test
+    void remove_DropsEmptyQueues() {
+        index.add(2L, 20L, 200L);
+        index.remove(2L, 200L);
+        index.remove(2L, 999L);
+
+        assertEquals(0, index.length(2L));
+        assertEquals(1, index.queuedBookCount());
+    }
+
+    @Test
+    void removeBook_ClearsWholeQueue() {
+        index.removeBook(1L);
+
+        assertEquals(0, index.position(1L, 101L));
+        assertEquals(0, index.queuedBookCount());
+    }
+}
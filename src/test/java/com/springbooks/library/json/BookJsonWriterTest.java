@@ -0,0 +1,82 @@
+package com.springbooks.library.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.response.ApiResponse;
+import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final BookMapper bookMapper = new BookMapper();
+
+    @Test
+    void writeBook_EscapesLikeJackson() throws Exception {
+        Book book = new Book(Long.MAX_VALUE, "Quote \" backslash \\ tab \t nl \n bell \u0007 del \u007f",
+                "Émile Zola – 日本語 😀", "isbn/1", null, null, null, 0L);
+
+        assertEquals(objectMapper.writeValueAsString(bookMapper.toResponse(book)), write(writer -> writer.writeBook(book)));
+    }
+
+    @Test
+    void writePage_MatchesJacksonEnvelope() throws Exception {
+        CursorPage<Book> page = new CursorPage<>(List.of(
+            new Book(1L, "Book 1", "Author 1", "111", false, 1, 1, 0L),
+            new Book(20L, "Book 20", "Author 20", "222", true, 1, 0, 4L)
+        ), 2, null, false);
+
+        assertEquals(jackson(page), write(writer -> writer.writePage(page, "Books retrieved successfully")));
+    }
+
+    @Test
+    void writePage_LargerThanBuffer_MatchesJackson() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (long i = 1; i <= 500; i++) {
+            books.add(new Book(i, "Title " + i + " ü", "Author " + i, "ISBN-" + i, i % 2 == 0, 1, i % 2 == 0 ? 0 : 1, 0L));
+        }
+        CursorPage<Book> page = new CursorPage<>(books, books.size(), 500L, true);
+
+        String json = write(writer -> writer.writePage(page, "Books retrieved successfully"));
+
+        assertTrue(json.length() > BookJsonWriter.BUFFER_SIZE);
+        assertEquals(jackson(page), json);
+    }
+
+    @Test
+    void writeLine_AppendsNewline() throws Exception {
+        Book book = new Book(7L, "T", "A", "I", true, 1, 0, 0L);
+
+        assertEquals("{\"id\":7,\"title\":\"T\",\"author\":\"A\",\"isbn\":\"I\",\"isBorrowed\":true,\"totalCopies\":1,\"availableCopies\":0}\n",
+                write(writer -> writer.writeLine(book)));
+    }
+
+    private String jackson(CursorPage<Book> page) throws Exception {
+        CursorPage<BookResponse> responses = new CursorPage<>(
+                page.getContent().stream().map(bookMapper::toResponse).toList(),
+                page.getSize(), page.getNextCursor(), page.isHasNext());
+        return objectMapper.writeValueAsString(ApiResponse.success(responses, "Books retrieved successfully"));
+    }
+
+    private static String write(WriterAction action) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BookJsonWriter writer = new BookJsonWriter(out)) {
+            action.accept(writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface WriterAction {
+        void accept(BookJsonWriter writer) throws Exception;
+    }
+}
@@ -0,0 +1,116 @@
+package com.springbooks.library.overdue;
+
+import com.springbooks.library.config.OverdueProperties;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.service.LoanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-15T10:00:00Z");
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanService loanService;
+
+    private OverdueSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        OverdueProperties properties = new OverdueProperties();
+        properties.setLookahead(Duration.ofHours(1));
+        properties.setBatchSize(2);
+        sweeper = new OverdueSweeper(loanRepository, loanService, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void sweep_FlagsOnlyLoansAlreadyDue() {
+        when(loanRepository.findComingDue(Instant.EPOCH, 0L, NOW.plusSeconds(3600), Limit.of(2)))
+                .thenReturn(List.of(dueLoan(1L, NOW.minusSeconds(60)), dueLoan(2L, NOW.plusSeconds(60))));
+        when(loanService.markOverdue(List.of(1L), NOW)).thenReturn(1);
+
+        assertEquals(1, sweeper.sweep(NOW));
+        assertEquals(1, sweeper.queued());
+        verify(loanService).markOverdue(List.of(1L), NOW);
+    }
+
+    @Test
+    void sweep_ContinuesFromLastLoadedLoan() {
+        when(loanRepository.findComingDue(Instant.EPOCH, 0L, NOW.plusSeconds(3600), Limit.of(2)))
+                .thenReturn(List.of(dueLoan(1L, NOW.minusSeconds(60)), dueLoan(2L, NOW.minusSeconds(30))));
+        when(loanRepository.findComingDue(NOW.minusSeconds(30), 2L, NOW.plusSeconds(3600), Limit.of(2)))
+                .thenReturn(List.of(dueLoan(3L, NOW.plusSeconds(600))));
+        when(loanService.markOverdue(List.of(1L, 2L), NOW)).thenReturn(2);
+
+        assertEquals(2, sweeper.sweep(NOW));
+
+        Instant later = NOW.plusSeconds(900);
+        when(loanRepository.findComingDue(NOW.plusSeconds(600), 3L, later.plusSeconds(3600), Limit.of(2)))
+                .thenReturn(List.of());
+        when(loanService.markOverdue(List.of(3L), later)).thenReturn(1);
+
+        assertEquals(1, sweeper.sweep(later));
+        assertEquals(0, sweeper.queued());
+    }
+
+    @Test
+    void sweep_FlagsInBatches() {
+        when(loanRepository.findComingDue(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(dueLoan(1L, NOW.minusSeconds(3)), dueLoan(2L, NOW.minusSeconds(2))))
+                .thenReturn(List.of(dueLoan(3L, NOW.minusSeconds(1))));
+        when(loanService.markOverdue(anyList(), eq(NOW))).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        assertEquals(3, sweeper.sweep(NOW));
+        verify(loanService).markOverdue(List.of(1L, 2L), NOW);
+        verify(loanService).markOverdue(List.of(3L), NOW);
+    }
+
+    @Test
+    void sweep_RequeuesLoansWhenFlaggingFails() {
+        when(loanRepository.findComingDue(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(dueLoan(1L, NOW.minusSeconds(60))))
+                .thenReturn(List.of());
+        when(loanService.markOverdue(List.of(1L), NOW))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(1);
+
+        assertEquals(0, sweeper.sweep(NOW));
+        assertEquals(1, sweeper.queued());
+
+        assertEquals(1, sweeper.sweep(NOW));
+        assertEquals(0, sweeper.queued());
+    }
+
+    private static LoanRepository.DueLoan dueLoan(Long id, Instant dueAt) {
+        return new LoanRepository.DueLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getDueAt() {
+                return dueAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.springbooks.library.ratelimit;
+
+import com.springbooks.library.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("export", group(List.of("/api/books/export"), List.of(), 1, Duration.ofMinutes(1), null));
+        properties.getGroups().put("write", group(List.of("/api/**"), List.of("post", "PUT"), 10, Duration.ofSeconds(1), 3));
+        limiter = new RateLimiter(properties, nanos::get);
+    }
+
+    @Test
+    void tryAcquire_AllowsBurstThenRejectsWithRetryAfter() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            RateLimiter.Decision decision = limiter.tryAcquire("POST", "/api/books", "sub:alice");
+            assertTrue(decision.allowed());
+            assertEquals(3, decision.limit());
+            assertEquals(remaining, decision.remaining());
+        }
+
+        RateLimiter.Decision rejected = limiter.tryAcquire("POST", "/api/books", "sub:alice");
+        assertFalse(rejected.allowed());
+        assertEquals("write", rejected.group());
+        assertEquals(Duration.ofMillis(100), rejected.retryAfter());
+    }
+
+    @Test
+    void tryAcquire_RefillsAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("PUT", "/api/books/1", "sub:alice");
+        }
+
+        nanos.addAndGet(Duration.ofMillis(100).toNanos());
+        assertTrue(limiter.tryAcquire("PUT", "/api/books/1", "sub:alice").allowed());
+        assertFalse(limiter.tryAcquire("PUT", "/api/books/1", "sub:alice").allowed());
+
+        // Idle time refills up to the burst, no further
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(2, limiter.tryAcquire("PUT", "/api/books/1", "sub:alice").remaining());
+    }
+
+    @Test
+    void tryAcquire_KeepsSeparateBucketsPerClientAndGroup() {
+        assertTrue(limiter.tryAcquire("GET", "/api/books/export", "sub:alice").allowed());
+        assertFalse(limiter.tryAcquire("GET", "/api/books/export", "sub:alice").allowed());
+
+        assertTrue(limiter.tryAcquire("GET", "/api/books/export", "sub:bob").allowed());
+        assertTrue(limiter.tryAcquire("POST", "/api/books", "sub:alice").allowed());
+    }
+
+    @Test
+    void tryAcquire_UnmatchedRequest_NotLimited() {
+        assertNull(limiter.tryAcquire("GET", "/api/books", "sub:alice"));
+        assertNull(limiter.tryAcquire("POST", "/actuator/refresh", "sub:alice"));
+    }
+
+    private static RateLimitProperties.Group group(List<String> paths, List<String> methods, int limit,
+                                                   Duration period, Integer burst) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPaths(paths);
+        group.setMethods(methods);
+        group.setLimit(limit);
+        group.setPeriod(period);
+        group.setBurst(burst);
+        return group;
+    }
+}
@@ -0,0 +1,120 @@
+package com.springbooks.library.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.index(1L, "Animal Farm", "George Orwell");
+        index.index(2L, "1984", "George Orwell");
+        index.index(3L, "The Great Gatsby", "F. Scott Fitzgerald");
+        index.index(4L, "Orwell's Roses", "Rebecca Solnit");
+    }
+
+    @Test
+    void search_MatchesPrefixesOfEveryToken() {
+        BookSearchIndex.Hits hits = index.search("orw fa", 0, 10);
+
+        assertEquals(List.of(1L), hits.ids());
+        assertEquals(1, hits.totalHits());
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveAuthorMatches() {
+        BookSearchIndex.Hits hits = index.search("orwell", 0, 10);
+
+        assertEquals(List.of(4L, 1L, 2L), hits.ids());
+        assertEquals(3, hits.totalHits());
+    }
+
+    @Test
+    void search_PagesThroughRankedHits() {
+        BookSearchIndex.Hits hits = index.search("orwell", 1, 1);
+
+        assertEquals(List.of(1L), hits.ids());
+        assertEquals(3, hits.totalHits());
+    }
+
+    @Test
+    void search_IgnoresCaseAndAccents() {
+        index.index(5L, "Les Misérables", "Victor Hugo");
+
+        assertEquals(List.of(5L), index.search("MISERABLES", 0, 10).ids());
+    }
+
+    @Test
+    void index_ReplacesTermsOfExistingBook() {
+        index.index(1L, "Homage to Catalonia", "George Orwell");
+
+        assertTrue(index.search("farm", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search("catalonia", 0, 10).ids());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DropsBookFromResults() {
+        index.remove(2L);
+
+        assertEquals(List.of(4L, 1L), index.search("orwell", 0, 10).ids());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_OffsetBeyondHitsReturnsEmptyPage() {
+        BookSearchIndex.Hits hits = index.search("orwell", Integer.MAX_VALUE - 1, 500);
+
+        assertTrue(hits.ids().isEmpty());
+        assertEquals(3, hits.totalHits());
+    }
+
+    @Test
+    void search_LastPageBeyondSeveralHitsDoesNotOverflow() {
+        BookSearchIndex.Hits hits = index.search("orwell", 2, Integer.MAX_VALUE);
+
+        assertEquals(List.of(2L), hits.ids());
+        assertEquals(3, hits.totalHits());
+    }
+
+    @Test
+    void search_PrefixWithManyTermsMatchesEveryOne() {
+        BookSearchIndex large = new BookSearchIndex();
+        for (long id = 1; id <= 200; id++) {
+            large.index(id, "Volume" + id, "Anonymous");
+        }
+
+        BookSearchIndex.Hits hits = large.search("volume", 0, 500);
+
+        assertEquals(200, hits.totalHits());
+        assertEquals(200, hits.ids().size());
+        assertEquals(1L, hits.ids().get(0));
+    }
+
+    @Test
+    void search_IntersectsByMergingWhenOtherTokenHasManyTerms() {
+        // "george" drives with two books; "or" expands to three terms over five books
+        index.index(6L, "Oracle Bones", "Peter Hessler");
+        index.index(7L, "Ordinary People", "Judith Guest");
+
+        BookSearchIndex.Hits hits = index.search("george or", 0, 10);
+
+        assertEquals(List.of(1L, 2L), hits.ids());
+        assertEquals(2, hits.totalHits());
+    }
+
+    @Test
+    void search_BlankQueryReturnsNothing() {
+        BookSearchIndex.Hits hits = index.search("  ", 0, 10);
+
+        assertTrue(hits.ids().isEmpty());
+        assertEquals(0, hits.totalHits());
+    }
+}
@@ -0,0 +1,112 @@
+package com.springbooks.library.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJwkSourceTest {
+
+    private final CachingJwtDecoderTest.MutableClock clock = new CachingJwtDecoderTest.MutableClock();
+
+    private LocalJwkSet jwkSet;
+    private NimbusJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        jwkSet = new LocalJwkSet();
+        CachingJwkSource keySource = new CachingJwkSource(jwkSet, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+        decoder = new NimbusJwtDecoder(processor);
+    }
+
+    @Test
+    void decode_SignedToken_FetchesKeysOnce() {
+        decoder.decode(signedToken());
+        decoder.decode(signedToken());
+
+        assertEquals(1, jwkSet.getFetchCount());
+    }
+
+    @Test
+    void decode_AfterRotation_RefetchesKeysForUnknownKeyId() {
+        String oldToken = signedToken();
+        decoder.decode(oldToken);
+        jwkSet.rotate();
+        clock.advance(Duration.ofSeconds(30));
+
+        Jwt jwt = decoder.decode(signedToken());
+        decoder.decode(oldToken);
+
+        assertEquals("test-user", jwt.getSubject());
+        assertEquals(2, jwkSet.getFetchCount());
+    }
+
+    @Test
+    void decode_UnknownKeyWithinCooldown_RejectedWithoutRefetch() {
+        decoder.decode(signedToken());
+        jwkSet.rotate();
+
+        assertThrows(JwtException.class, () -> decoder.decode(signedToken()));
+        assertEquals(1, jwkSet.getFetchCount());
+    }
+
+    @Test
+    void decode_AfterTtl_RefetchesKeys() {
+        decoder.decode(signedToken());
+        clock.advance(Duration.ofMinutes(5));
+
+        decoder.decode(signedToken());
+
+        assertEquals(2, jwkSet.getFetchCount());
+    }
+
+    @Test
+    void decode_ReloadFails_ServesCachedKeysWithoutRetryUntilCooldown() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicBoolean down = new AtomicBoolean();
+        CachingJwkSource keySource = new CachingJwkSource(() -> {
+            loads.incrementAndGet();
+            if (down.get()) {
+                throw new IllegalStateException("identity provider unavailable");
+            }
+            return jwkSet.get();
+        }, Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+        NimbusJwtDecoder failingDecoder = new NimbusJwtDecoder(processor);
+        failingDecoder.decode(signedToken());
+        down.set(true);
+        clock.advance(Duration.ofMinutes(5));
+
+        failingDecoder.decode(signedToken());
+        failingDecoder.decode(signedToken());
+        assertEquals(2, loads.get());
+
+        clock.advance(Duration.ofSeconds(30));
+        failingDecoder.decode(signedToken());
+        assertEquals(3, loads.get());
+    }
+
+    private String signedToken() {
+        return jwkSet.sign(new JWTClaimsSet.Builder()
+                .subject("test-user")
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build());
+    }
+}
@@ -0,0 +1,129 @@
+package com.springbooks.library.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private Instant expiresAt;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        expiresAt = START.plusSeconds(60);
+        JwtDecoder delegate = token -> {
+            decodes.incrementAndGet();
+            if (token.startsWith("bad")) {
+                throw new JwtException("Invalid JWT token");
+            }
+            Jwt.Builder builder = Jwt.withTokenValue(token).header("alg", "RS256").claim("sub", "test-user");
+            if (!token.startsWith("no-exp")) {
+                builder.expiresAt(expiresAt);
+            }
+            return builder.build();
+        };
+        decoder = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), 100, clock, () -> clock.nanos());
+    }
+
+    @Test
+    void decode_RepeatedToken_DecodesOnce() {
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+
+        assertSame(first, second);
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void decode_DifferentTokens_DecodedSeparately() {
+        decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void decode_AtExpiry_DecodesAgain() {
+        decoder.decode("token-a");
+        clock.advance(Duration.ofSeconds(60));
+
+        decoder.decode("token-a");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void decode_PastMaxTtl_DecodesAgain() {
+        expiresAt = START.plus(Duration.ofHours(1));
+        decoder.decode("token-a");
+        clock.advance(Duration.ofMinutes(5));
+
+        decoder.decode("token-a");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void decode_TokenWithoutExpiry_NotCached() {
+        decoder.decode("no-exp-token");
+        decoder.decode("no-exp-token");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void decode_InvalidToken_NotCached() {
+        assertThrows(JwtException.class, () -> decoder.decode("bad-token"));
+        assertThrows(JwtException.class, () -> decoder.decode("bad-token"));
+
+        assertEquals(2, decodes.get());
+    }
+
+    /**
+     * Drives both the wall clock used for {@code exp} checks and the cache's ticker.
+     */
+    static class MutableClock extends Clock {
+
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        long nanos() {
+            return Duration.between(START, now).toNanos();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
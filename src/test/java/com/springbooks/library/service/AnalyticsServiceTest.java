@@ -0,0 +1,119 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.config.AnalyticsProperties;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.repository.LoanRepository;
+import com.springbooks.library.service.impl.AnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    private AnalyticsServiceImpl analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new AnalyticsServiceImpl(loanRepository, new AnalyticsProperties());
+    }
+
+    @Test
+    void rebuildRollups_EventCommittedBeforeLoad_CountedOnce() {
+        Instant borrowedAt = Instant.now();
+        analyticsService.onCirculation(BookCirculationEvent.borrowed(1L, 2L, 0, 1L, 9L, borrowedAt));
+        when(loanRepository.streamBorrowedBetween(any(), any())).thenReturn(Stream.of(borrowedLoan(9L, 1L, 2L, borrowedAt)));
+        when(loanRepository.streamReturnedBetween(any(), any())).thenReturn(Stream.empty());
+
+        analyticsService.rebuildRollups();
+
+        assertEquals(1, analyticsService.getBookBorrows(1L, 1).getBorrows());
+        assertEquals(1, analyticsService.getMemberBorrows(2L, 1).getBorrows());
+    }
+
+    @Test
+    void rebuildRollups_EventForLoanReadByLoad_CountedOnce() {
+        Instant borrowedAt = Instant.now();
+        when(loanRepository.streamBorrowedBetween(any(), any())).thenAnswer(invocation -> {
+            // The borrow committed before the query read it, but its event arrives during the load
+            analyticsService.onCirculation(BookCirculationEvent.borrowed(1L, 2L, 0, 1L, 9L, borrowedAt));
+            return Stream.of(borrowedLoan(9L, 1L, 2L, borrowedAt));
+        });
+        when(loanRepository.streamReturnedBetween(any(), any())).thenReturn(Stream.empty());
+
+        analyticsService.rebuildRollups();
+
+        assertEquals(1, analyticsService.getBookBorrows(1L, 1).getBorrows());
+    }
+
+    @Test
+    void rebuildRollups_EventForLoanNotReadByLoad_CountedAfterLoad() {
+        ArgumentCaptor<Instant> until = ArgumentCaptor.forClass(Instant.class);
+        when(loanRepository.streamBorrowedBetween(any(), until.capture())).thenAnswer(invocation -> {
+            // A borrow commits while the loans are being read, after the query passed it
+            analyticsService.onCirculation(BookCirculationEvent.borrowed(1L, 2L, 0, 1L, 9L, Instant.now()));
+            return Stream.empty();
+        });
+        when(loanRepository.streamReturnedBetween(any(), any())).thenReturn(Stream.empty());
+
+        analyticsService.rebuildRollups();
+
+        assertEquals(1, analyticsService.getBookBorrows(1L, 1).getBorrows());
+        verify(loanRepository).streamReturnedBetween(any(), eq(until.getValue()));
+        assertFalse(until.getValue().isAfter(Instant.now()));
+    }
+
+    @Test
+    void onCirculation_AfterLoad_RecordsAtLoanTime() {
+        when(loanRepository.streamBorrowedBetween(any(), any())).thenReturn(Stream.empty());
+        when(loanRepository.streamReturnedBetween(any(), any())).thenReturn(Stream.empty());
+        analyticsService.rebuildRollups();
+
+        Instant twoDaysAgo = Instant.now().minus(Duration.ofDays(2));
+        analyticsService.onCirculation(BookCirculationEvent.borrowed(1L, 2L, 0, 1L, 9L, twoDaysAgo));
+        analyticsService.onCirculation(BookCirculationEvent.borrowed(1L, 3L, 0, 2L, 10L, Instant.now()));
+        analyticsService.onCirculation(BookCirculationEvent.returned(1L, 1, 3L, 10L, Instant.now()));
+
+        assertEquals(1, analyticsService.getBookBorrows(1L, 1).getBorrows());
+        assertEquals(2, analyticsService.getBookBorrows(1L, 7).getBorrows());
+        assertEquals(1, analyticsService.getHourlyCirculation(1).get(0).getReturns());
+    }
+
+    private static LoanRepository.BorrowedLoan borrowedLoan(Long id, Long bookId, Long memberId, Instant borrowedAt) {
+        return new LoanRepository.BorrowedLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getMemberId() {
+                return memberId;
+            }
+
+            @Override
+            public Instant getBorrowedAt() {
+                return borrowedAt;
+            }
+        };
+    }
+}
@@ -1,27 +1,55 @@
 package com.springbooks.library.service;
 
+import com.springbooks.library.config.CacheConfig;
+import com.springbooks.library.config.FinesProperties;
+import com.springbooks.library.etag.CatalogVersions;
+import com.springbooks.library.etag.TaggedBookCache;
+import com.springbooks.library.event.BookCirculationEvent;
+import com.springbooks.library.event.HoldChangedEvent;
 import com.springbooks.library.exception.*;
 import com.springbooks.library.model.entity.Book;
+import com.springbooks.library.model.entity.BookCopy;
+import com.springbooks.library.model.entity.Loan;
 import com.springbooks.library.model.mapper.BookMapper;
+import com.springbooks.library.model.request.BatchMode;
 import com.springbooks.library.model.request.BookRequest;
+import com.springbooks.library.model.response.BatchCirculationResponse;
 import com.springbooks.library.model.response.BookResponse;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CirculationResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.repository.BookCopyRepository;
 import com.springbooks.library.repository.BookRepository;
+import com.springbooks.library.repository.HoldRepository;
+import com.springbooks.library.repository.LoanRepository;
 import com.springbooks.library.repository.MemberRepository;
 import com.springbooks.library.service.impl.BookServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +58,39 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private HoldRepository holdRepository;
+
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private FinesProperties finesProperties = new FinesProperties();
+
+    @Spy
+    private TaggedBookCache bookCache = new TaggedBookCache(new ConcurrentMapCacheManager(CacheConfig.BOOKS), new CatalogVersions());
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -45,9 +100,9 @@ class BookServiceTest {
 
     @BeforeEach
     void setUp() {
-        testBook = new Book(1L, "Test Book", "Test Author", "123456789", false);
-        testBookRequest = new BookRequest("Test Book", "Test Author", "123456789");
-        testBookResponse = new BookResponse(1L, "Test Book", "Test Author", "123456789", false);
+        testBook = new Book(1L, "Test Book", "Test Author", "123456789", false, 1, 1, 0L);
+        testBookRequest = new BookRequest("Test Book", "Test Author", "123456789", 1);
+        testBookResponse = new BookResponse(1L, "Test Book", "Test Author", "123456789", false, 1, 1);
     }
 
     @Test
@@ -63,6 +118,7 @@ class BookServiceTest {
         assertEquals(testBookResponse.getTitle(), result.getTitle());
         verify(bookRepository).existsByIsbn(testBookRequest.getIsbn());
         verify(bookRepository).save(testBook);
+        verify(bookCopyRepository).saveAll(List.of(new BookCopy(null, testBook, BookCopy.Status.AVAILABLE)));
     }
 
     @Test
@@ -73,18 +129,78 @@ class BookServiceTest {
         verify(bookRepository, never()).save(any());
     }
 
+    @Test
+    void createBooks_SkipsExistingAndRepeatedIsbns() {
+        BookRequest existing = new BookRequest("Existing", "Author", "111", 1);
+        BookRequest repeated = new BookRequest("Repeated", "Author", "123456789", 1);
+        when(validator.validate(any(BookRequest.class))).thenReturn(Set.of());
+        when(bookRepository.findExistingIsbns(Set.of("123456789", "111"))).thenReturn(Set.of("111"));
+        when(bookMapper.toEntity(testBookRequest)).thenReturn(testBook);
+
+        List<BulkItemResult> results = bookService.createBooks(List.of(testBookRequest, existing, repeated), 1000);
+
+        assertEquals(3, results.size());
+        assertEquals(BulkItemResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(1000, results.get(0).getIndex());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(2).getStatus());
+        verify(bookRepository).saveAll(List.of(testBook));
+        verify(bookRepository, never()).existsByIsbn(any());
+    }
+
+    @Test
+    void createBooks_IsbnTakenConcurrently_RetriesAndReportsDuplicate() {
+        BookRequest other = new BookRequest("Other", "Author", "222", 1);
+        Book otherBook = new Book(2L, "Other", "Author", "222", false, 1, 1, 0L);
+        when(validator.validate(any(BookRequest.class))).thenReturn(Set.of());
+        when(bookRepository.findExistingIsbns(Set.of("123456789", "222")))
+            .thenReturn(Set.of())
+            .thenReturn(Set.of("123456789"));
+        when(bookMapper.toEntity(testBookRequest)).thenReturn(testBook);
+        when(bookMapper.toEntity(other)).thenReturn(otherBook);
+        doThrow(new DataIntegrityViolationException("Unique index violation"))
+            .doNothing()
+            .when(bookRepository).flush();
+
+        List<BulkItemResult> results = bookService.createBooks(List.of(testBookRequest, other), 0);
+
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(0).getStatus());
+        assertEquals(BulkItemResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals(2L, results.get(1).getId());
+        verify(transactions, times(2)).execute(any());
+        verify(bookRepository).saveAll(List.of(otherBook));
+    }
+
     @Test
     void getAllBooks_Success() {
         
         List<Book> books = Arrays.asList(testBook);
-        when(bookRepository.findAll()).thenReturn(books);
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(books);
         when(bookMapper.toResponse(testBook)).thenReturn(testBookResponse);
 
-        List<BookResponse> result = bookService.getAllBooks();
+        CursorPage<BookResponse> result = bookService.getAllBooks(null, 10);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testBookResponse.getTitle(), result.get(0).getTitle());
+        assertEquals(1, result.getContent().size());
+        assertEquals(testBookResponse.getTitle(), result.getContent().get(0).getTitle());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getAllBooks_MoreRowsThanPageSize_ReturnsNextCursor() {
+        Book secondBook = new Book(2L, "Second Book", "Second Author", "987654321", false, 1, 1, 0L);
+        BookResponse secondResponse = new BookResponse(2L, "Second Book", "Second Author", "987654321", false, 1, 1);
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(Arrays.asList(testBook, secondBook));
+        when(bookMapper.toResponse(testBook)).thenReturn(testBookResponse);
+        when(bookMapper.toResponse(secondBook)).thenReturn(secondResponse);
+
+        CursorPage<BookResponse> result = bookService.getAllBooks(null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(1L, result.getNextCursor());
     }
 
     @Test
@@ -128,6 +244,7 @@ class BookServiceTest {
 
         bookService.deleteBook(1L);
         
+        verify(loanRepository).deleteByBookId(1L);
         verify(bookRepository).deleteById(1L);
     }
 
@@ -142,63 +259,286 @@ class BookServiceTest {
 
     @Test
     void borrowBook_Success() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(memberRepository.existsById(1L)).thenReturn(true);
-        when(bookRepository.save(testBook)).thenReturn(testBook);
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.takeCopies(List.of(1L))).thenReturn(1);
+        when(bookCopyRepository.findFirstFreeCopies(List.of(1L))).thenReturn(List.of(freeCopy(1L, 11L, 3, 5L)));
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> {
+            Loan loan = invocation.getArgument(0);
+            loan.setId(21L);
+            return loan;
+        });
 
         bookService.borrowBook(1L, 1L);
 
-        assertTrue(testBook.getIsBorrowed());
-        verify(bookRepository).save(testBook);
+        verify(bookRepository).takeCopies(List.of(1L));
+        verify(bookCopyRepository).markAllBorrowed(List.of(11L));
+        verify(loanRepository).save(any(Loan.class));
+        verify(eventPublisher).publishEvent(circulation(1L, true, 1L, 2, 5L, 21L));
+        verify(bookRepository, never()).findById(anyLong());
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
     void borrowBook_BookNotFound_ThrowsException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.takeCopies(List.of(1L))).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(BookNotFoundException.class, () -> bookService.borrowBook(1L, 1L));
     }
 
     @Test
     void borrowBook_MemberNotFound_ThrowsException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(memberRepository.existsById(1L)).thenReturn(false);
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.empty());
 
         assertThrows(MemberNotFoundException.class, () -> bookService.borrowBook(1L, 1L));
+        verify(bookRepository, never()).takeCopies(any());
     }
 
     @Test
-    void borrowBook_AlreadyBorrowed_ThrowsException() {
-        testBook.setIsBorrowed(true);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(memberRepository.existsById(1L)).thenReturn(true);
+    void borrowBook_FineBalanceOverLimit_ThrowsException() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(new BigDecimal("5.25")));
+
+        assertThrows(FineBalanceExceededException.class, () -> bookService.borrowBook(1L, 1L));
+        verify(bookRepository, never()).takeCopies(any());
+    }
+
+    @Test
+    void borrowBook_FineBalanceAtLimit_Success() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(new BigDecimal("5.00")));
+        when(bookRepository.takeCopies(List.of(1L))).thenReturn(1);
+        when(bookCopyRepository.findFirstFreeCopies(List.of(1L))).thenReturn(List.of(freeCopy(1L, 11L, 1, 5L)));
+
+        bookService.borrowBook(1L, 1L);
+
+        verify(loanRepository).save(any(Loan.class));
+    }
+
+    @Test
+    void borrowBook_AllCopiesBorrowed_ThrowsException() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.takeCopies(List.of(1L))).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(BookAlreadyBorrowedException.class, () -> bookService.borrowBook(1L, 1L));
+        verify(bookCopyRepository, never()).markAllBorrowed(any());
+        verify(loanRepository, never()).save(any());
     }
 
     @Test
     void returnBook_Success() {
-        testBook.setIsBorrowed(true);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(bookRepository.save(testBook)).thenReturn(testBook);
+        when(bookRepository.lockCirculationState(List.of(1L))).thenReturn(List.of(state(1L, 0, 2, 4L)));
+        when(loanRepository.findOldestActiveLoans(List.of(1L))).thenReturn(List.of(activeLoan(5L, 11L, 1L)));
 
         bookService.returnBook(1L);
 
-        assertFalse(testBook.getIsBorrowed());
-        verify(bookRepository).save(testBook);
+        verify(loanRepository).closeLoans(eq(List.of(5L)), any());
+        verify(bookCopyRepository).markAllReturned(List.of(11L));
+        verify(bookRepository).releaseCopies(List.of(1L));
+        verify(eventPublisher).publishEvent(circulation(1L, false, null, 1, 5L, 5L));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void returnBook_WithHolds_LendsToFirstInQueue() {
+        HoldRepository.QueueEntry head = mock(HoldRepository.QueueEntry.class);
+        when(head.getId()).thenReturn(7L);
+        when(head.getBookId()).thenReturn(1L);
+        when(head.getMemberId()).thenReturn(2L);
+        when(bookRepository.lockCirculationState(List.of(1L))).thenReturn(List.of(state(1L, 0, 1, 4L)));
+        when(loanRepository.findOldestActiveLoans(List.of(1L))).thenReturn(List.of(activeLoan(5L, 11L, 1L)));
+        when(holdRepository.findQueueHeads(List.of(1L))).thenReturn(List.of(head));
+        when(bookCopyRepository.findFirstFreeCopies(List.of(1L))).thenReturn(List.of(freeCopy(1L, 11L, 1, 6L)));
+
+        bookService.returnBook(1L);
+
+        verify(bookRepository).takeCopies(List.of(1L));
+        verify(bookCopyRepository).markAllBorrowed(List.of(11L));
+        verify(loanRepository).save(any(Loan.class));
+        verify(holdRepository).deleteByIdIn(List.of(7L));
+        verify(eventPublisher).publishEvent(circulation(1L, false, null, 1, 5L, 5L));
+        verify(eventPublisher).publishEvent(circulation(1L, true, 2L, 0, 6L, null));
+        verify(eventPublisher).publishEvent(HoldChangedEvent.promoted(1L, 2L, 7L));
     }
 
     @Test
     void returnBook_BookNotFound_ThrowsException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.lockCirculationState(List.of(1L))).thenReturn(List.of());
 
         assertThrows(BookNotFoundException.class, () -> bookService.returnBook(1L));
     }
 
     @Test
     void returnBook_NotBorrowed_ThrowsException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.lockCirculationState(List.of(1L))).thenReturn(List.of(state(1L, 2, 2, 4L)));
 
         assertThrows(BookNotBorrowedException.class, () -> bookService.returnBook(1L));
+        verify(bookRepository, never()).releaseCopies(any());
+    }
+
+    @Test
+    void borrowBooks_AllAvailable_BorrowsInOneStatement() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.lockCirculationState(Set.of(1L, 2L))).thenReturn(List.of(state(1L, 1, 1, 4L), state(2L, 2, 2, 4L)));
+        when(bookCopyRepository.findFirstFreeCopies(List.of(1L, 2L)))
+                .thenReturn(List.of(freeCopy(1L, 11L, 1, 5L), freeCopy(2L, 12L, 2, 5L)));
+        when(loanRepository.findOpenedLoans(eq(1L), any())).thenReturn(List.of(openedLoan(21L, 1L), openedLoan(22L, 2L)));
+
+        BatchCirculationResponse response = bookService.borrowBooks(1L, List.of(1L, 2L), BatchMode.ALL_OR_NOTHING);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertFalse(response.isRejected());
+        verify(bookRepository).takeCopies(List.of(1L, 2L));
+        verify(bookCopyRepository).markAllBorrowed(List.of(11L, 12L));
+        verify(loanRepository).openLoans(eq(List.of(11L, 12L)), eq(1L), any(), any());
+        verify(eventPublisher).publishEvent(circulation(1L, true, 1L, 0, 5L, 21L));
+        verify(eventPublisher).publishEvent(circulation(2L, true, 1L, 1, 5L, 22L));
+    }
+
+    @Test
+    void borrowBooks_AllOrNothing_RejectsWholeBatch() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.lockCirculationState(Set.of(1L, 2L, 3L))).thenReturn(List.of(state(1L, 1, 1, 4L), state(2L, 0, 3, 4L)));
+
+        BatchCirculationResponse response = bookService.borrowBooks(1L, List.of(1L, 2L, 3L), BatchMode.ALL_OR_NOTHING);
+
+        assertTrue(response.isRejected());
+        assertEquals(List.of(CirculationResult.Status.SKIPPED, CirculationResult.Status.ALREADY_BORROWED,
+                CirculationResult.Status.NOT_FOUND), statuses(response));
+        verify(bookRepository, never()).takeCopies(any());
+        verify(loanRepository, never()).openLoans(any(), anyLong(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void borrowBooks_Partial_BorrowsAvailableBooks() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(bookRepository.lockCirculationState(Set.of(1L, 2L))).thenReturn(List.of(state(1L, 1, 1, 4L), state(2L, 0, 1, 4L)));
+        when(bookCopyRepository.findFirstFreeCopies(List.of(1L))).thenReturn(List.of(freeCopy(1L, 11L, 1, 5L)));
+
+        BatchCirculationResponse response = bookService.borrowBooks(1L, List.of(1L, 2L, 1L), BatchMode.PARTIAL);
+
+        assertFalse(response.isRejected());
+        assertEquals(List.of(CirculationResult.Status.BORROWED, CirculationResult.Status.ALREADY_BORROWED,
+                CirculationResult.Status.DUPLICATE), statuses(response));
+        verify(bookRepository).takeCopies(List.of(1L));
+        verify(loanRepository).openLoans(eq(List.of(11L)), eq(1L), any(), any());
+    }
+
+    @Test
+    void borrowBooks_MemberNotFound_ThrowsException() {
+        when(memberRepository.findFineBalanceById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(MemberNotFoundException.class,
+                () -> bookService.borrowBooks(1L, List.of(1L), BatchMode.PARTIAL));
+        verify(bookRepository, never()).lockCirculationState(any());
+    }
+
+    @Test
+    void returnBooks_Partial_ReturnsBorrowedBooks() {
+        when(bookRepository.lockCirculationState(Set.of(1L, 2L))).thenReturn(List.of(state(1L, 1, 2, 4L), state(2L, 1, 1, 4L)));
+        when(loanRepository.findOldestActiveLoans(List.of(1L))).thenReturn(List.of(activeLoan(5L, 11L, 1L)));
+
+        BatchCirculationResponse response = bookService.returnBooks(List.of(1L, 2L), BatchMode.PARTIAL);
+
+        assertEquals(List.of(CirculationResult.Status.RETURNED, CirculationResult.Status.NOT_BORROWED), statuses(response));
+        verify(loanRepository).closeLoans(eq(List.of(5L)), any());
+        verify(bookCopyRepository).markAllReturned(List.of(11L));
+        verify(bookRepository).releaseCopies(List.of(1L));
+        verify(eventPublisher).publishEvent(circulation(1L, false, null, 2, 5L, 5L));
+    }
+
+    private static BookRepository.CirculationState state(Long id, int availableCopies, int totalCopies, long version) {
+        return new BookRepository.CirculationState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getAvailableCopies() {
+                return availableCopies;
+            }
+
+            @Override
+            public Integer getTotalCopies() {
+                return totalCopies;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static BookCopyRepository.FreeCopy freeCopy(Long bookId, Long copyId, long freeCopies, long bookVersion) {
+        return new BookCopyRepository.FreeCopy() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getCopyId() {
+                return copyId;
+            }
+
+            @Override
+            public Long getFreeCopies() {
+                return freeCopies;
+            }
+
+            @Override
+            public Long getBookVersion() {
+                return bookVersion;
+            }
+        };
+    }
+
+    private static LoanRepository.ActiveLoan activeLoan(Long id, Long copyId, Long bookId) {
+        return new LoanRepository.ActiveLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCopyId() {
+                return copyId;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+
+    private static LoanRepository.OpenedLoan openedLoan(Long id, Long bookId) {
+        return new LoanRepository.OpenedLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+
+    /** Matches a circulation event with the given fields and any recorded time. */
+    private static Object circulation(Long bookId, boolean borrowed, Long memberId, int availableCopies, long version,
+                                      Long loanId) {
+        return argThat(event -> event instanceof BookCirculationEvent circulation && circulation.at() != null
+                && circulation.equals(new BookCirculationEvent(bookId, borrowed, memberId, availableCopies, version,
+                        loanId, circulation.at())));
+    }
+
+    private static List<CirculationResult.Status> statuses(BatchCirculationResponse response) {
+        return response.getResults().stream().map(CirculationResult::getStatus).toList();
     }
 }
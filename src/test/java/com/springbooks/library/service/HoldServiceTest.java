@@ -0,0 +1,72 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.event.HoldChangedEvent;
+import com.springbooks.library.exception.HoldNotFoundException;
+import com.springbooks.library.model.response.HoldResponse;
+import com.springbooks.library.repository.HoldRepository;
+import com.springbooks.library.service.impl.HoldServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    @Test
+    void rebuildIndex_HoldCancelledDuringLoad_NotReAdded() {
+        when(holdRepository.findAllQueueEntries()).thenAnswer(invocation -> {
+            // The query read the hold, then its cancellation committed before the load finished
+            holdService.onHoldChanged(HoldChangedEvent.cancelled(1L, 2L));
+            return List.of(queueEntry(10L, 1L, 2L), queueEntry(11L, 1L, 3L));
+        });
+
+        holdService.rebuildIndex();
+
+        assertThrows(HoldNotFoundException.class, () -> holdService.getHold(1L, 2L));
+        HoldResponse hold = holdService.getHold(1L, 3L);
+        assertEquals(1, hold.getPosition());
+        assertEquals(1, hold.getQueueLength());
+    }
+
+    @Test
+    void onHoldChanged_AfterLoad_AppliedImmediately() {
+        when(holdRepository.findAllQueueEntries()).thenReturn(List.of());
+        holdService.rebuildIndex();
+
+        holdService.onHoldChanged(HoldChangedEvent.placed(1L, 2L, 10L));
+
+        assertEquals(1, holdService.getHold(1L, 2L).getPosition());
+    }
+
+    private static HoldRepository.QueueEntry queueEntry(Long id, Long bookId, Long memberId) {
+        return new HoldRepository.QueueEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getMemberId() {
+                return memberId;
+            }
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.springbooks.library.service;
+
+import com.springbooks.library.model.entity.Member;
+import com.springbooks.library.model.mapper.MemberMapper;
+import com.springbooks.library.model.request.MemberRequest;
+import com.springbooks.library.model.response.BulkItemResult;
+import com.springbooks.library.model.response.CursorPage;
+import com.springbooks.library.model.response.MemberResponse;
+import com.springbooks.library.repository.MemberRepository;
+import com.springbooks.library.service.impl.MemberServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private MemberMapper memberMapper;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MemberServiceImpl memberService;
+
+    private Member testMember;
+    private MemberRequest testMemberRequest;
+
+    @BeforeEach
+    void setUp() {
+        testMember = new Member(1L, "John Doe", "john@example.com", BigDecimal.ZERO);
+        testMemberRequest = new MemberRequest("John Doe", "john@example.com");
+    }
+
+    @Test
+    void getAllMembers_MoreRowsThanPageSize_ReturnsNextCursor() {
+        when(memberRepository.findPageAfter(10L, Limit.of(3))).thenReturn(List.of(
+            new MemberResponse(11L, "A", "a@example.com"),
+            new MemberResponse(12L, "B", "b@example.com"),
+            new MemberResponse(13L, "C", "c@example.com")
+        ));
+
+        CursorPage<MemberResponse> result = memberService.getAllMembers(10L, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(12L, result.getNextCursor());
+    }
+
+    @Test
+    void getAllMembers_FirstPage_StartsAfterIdZeroWithoutNextCursor() {
+        MemberResponse only = new MemberResponse(1L, "John Doe", "john@example.com");
+        when(memberRepository.findPageAfter(0L, Limit.of(11))).thenReturn(List.of(only));
+
+        CursorPage<MemberResponse> result = memberService.getAllMembers(null, 10);
+
+        assertEquals(List.of(only), result.getContent());
+        assertEquals(1, result.getSize());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getAllMembers_ExactlyPageSizeRows_HasNoNextPage() {
+        when(memberRepository.findPageAfter(10L, Limit.of(3))).thenReturn(List.of(
+            new MemberResponse(11L, "A", "a@example.com"),
+            new MemberResponse(12L, "B", "b@example.com")
+        ));
+
+        CursorPage<MemberResponse> result = memberService.getAllMembers(10L, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void streamAllMembers_PassesEveryRowAndClosesStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        List<MemberResponse> rows = List.of(
+            new MemberResponse(1L, "A", "a@example.com"),
+            new MemberResponse(2L, "B", "b@example.com")
+        );
+        when(memberRepository.streamAll()).thenReturn(rows.stream().onClose(() -> closed.set(true)));
+
+        List<MemberResponse> streamed = new ArrayList<>();
+        memberService.streamAllMembers(streamed::add);
+
+        assertEquals(rows, streamed);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void registerMembers_SkipsRegisteredAndRepeatedEmails() {
+        MemberRequest registered = new MemberRequest("Jane", "jane@example.com");
+        MemberRequest repeated = new MemberRequest("Johnny", "john@example.com");
+        when(validator.validate(any(MemberRequest.class))).thenReturn(Set.of());
+        when(memberRepository.findExistingEmails(Set.of("john@example.com", "jane@example.com")))
+            .thenReturn(Set.of("jane@example.com"));
+        when(memberMapper.toEntity(testMemberRequest)).thenReturn(testMember);
+
+        List<BulkItemResult> results = memberService.registerMembers(List.of(testMemberRequest, registered, repeated), 0);
+
+        assertEquals(BulkItemResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(2).getStatus());
+        verify(memberRepository).saveAll(List.of(testMember));
+        verify(memberRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void registerMembers_EmailTakenConcurrently_RetriesAndReportsDuplicate() {
+        when(validator.validate(any(MemberRequest.class))).thenReturn(Set.of());
+        when(memberRepository.findExistingEmails(Set.of("john@example.com")))
+            .thenReturn(Set.of())
+            .thenReturn(Set.of("john@example.com"));
+        when(memberMapper.toEntity(testMemberRequest)).thenReturn(testMember);
+        doThrow(new DataIntegrityViolationException("Unique index violation"))
+            .doNothing()
+            .when(memberRepository).flush();
+
+        List<BulkItemResult> results = memberService.registerMembers(List.of(testMemberRequest), 0);
+
+        assertEquals(BulkItemResult.Status.DUPLICATE, results.get(0).getStatus());
+        verify(memberRepository, times(1)).saveAll(List.of(testMember));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}